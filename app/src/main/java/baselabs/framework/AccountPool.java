@@ -0,0 +1,117 @@
+package baselabs.framework;
+
+import baselabs.framework.metrics.MetricsRegistry;
+import baselabs.utils.LoggerManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool of the accounts of one user role, leased exclusively so that concurrent scenarios never log in
+ * and out with the same account at the same time.
+ * Accounts are handed out in first-come, first-served order; the time spent waiting for one is recorded
+ * in the {@link MetricsRegistry#ACCOUNT_LEASES} histograms.
+ */
+public final class AccountPool {
+    private static final LoggerManager LOG = LoggerManager.getInstance();
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+    private final String name;
+    private final Semaphore permits;
+    private final Queue<Credentials> available;
+
+    /**
+     * Constructor to initialize the pool with the accounts of a role.
+     *
+     * @param name     the name of the pool, used in logs and metrics
+     * @param accounts the accounts of the role
+     */
+    public AccountPool(String name, List<Credentials> accounts) {
+        this.name = name;
+        this.permits = new Semaphore(accounts.size(), true);
+        this.available = new ConcurrentLinkedQueue<>(accounts);
+    }
+
+    /**
+     * Leases an account if one is free right now, without overtaking threads already waiting for one.
+     *
+     * @return the leased account, or null if every account is in use
+     */
+    public Credentials tryLease() {
+        try {
+            if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                METRICS.record(MetricsRegistry.ACCOUNT_LEASES, name, 0);
+                return available.poll();
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while leasing a " + name + " account", e);
+        }
+    }
+
+    /**
+     * Leases the given account if it is free right now, without overtaking threads already waiting for one.
+     *
+     * @param username the username of the account
+     * @return the leased account, or null if it is in use
+     */
+    public Credentials tryLease(String username) {
+        try {
+            if (!permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while leasing a " + name + " account", e);
+        }
+        for (Credentials credentials : available) {
+            if (credentials.username().equals(username) && available.remove(credentials)) {
+                METRICS.record(MetricsRegistry.ACCOUNT_LEASES, name, 0);
+                return credentials;
+            }
+        }
+        permits.release();
+        return null;
+    }
+
+    /**
+     * Leases an account, waiting for one to be released if every account is in use.
+     *
+     * @param timeout how long to wait for a free account
+     * @return the leased account
+     * @throws IllegalStateException if no account is released within the timeout
+     */
+    public Credentials lease(Duration timeout) {
+        Credentials credentials = tryLease();
+        if (credentials != null) {
+            return credentials;
+        }
+        LOG.info("Waiting for a free {} account", name);
+        METRICS.increment("accountLeaseWaits." + name);
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new IllegalStateException("Timed out waiting for a " + name + " account after " + timeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a " + name + " account", e);
+        }
+        METRICS.record(MetricsRegistry.ACCOUNT_LEASES, name, System.nanoTime() - start);
+        return available.poll();
+    }
+
+    /**
+     * Returns a leased account to the pool.
+     *
+     * @param credentials the account to return
+     */
+    public void release(Credentials credentials) {
+        available.offer(credentials);
+        permits.release();
+    }
+}
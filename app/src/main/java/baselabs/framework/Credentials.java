@@ -0,0 +1,22 @@
+package baselabs.framework;
+
+/**
+ * Username and password of a test account.
+ * The password is never included in {@link #toString()} so credentials can be logged safely.
+ *
+ * @param username the username
+ * @param password the password
+ */
+public record Credentials(String username, String password) {
+    private static final String REDACTED = "******";
+
+    /**
+     * Returns the username with the password redacted.
+     *
+     * @return the printable form of the credentials
+     */
+    @Override
+    public String toString() {
+        return "Credentials[username=" + username + ", password=" + REDACTED + "]";
+    }
+}
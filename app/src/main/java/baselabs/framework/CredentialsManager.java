@@ -5,28 +5,46 @@ import baselabs.utils.LoggerManager;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Singleton class to manage credentials and environment settings.
+ * Every environment defined in environments.properties is parsed once into an immutable
+ * {@link Environment}, so lookups are plain map reads that never lock and never log secrets.
+ * A role may define several accounts ({@code <envId>.<role>.<n>.username}); scenarios lease one
+ * exclusively for their duration so that concurrent scenarios never share an account.
  */
-public class CredentialsManager {
-    private Properties properties;
+public final class CredentialsManager {
     private static final LoggerManager LOG = LoggerManager.getInstance();
-    private static CredentialsManager instance;
-    private String envId;
+    private static final String BASE_URL_KEY = "baseURL";
+    private static final String USERNAME_KEY = "username";
+    private static final String PASSWORD_KEY = "password";
+    private static final int UNNUMBERED_ACCOUNT = -1;
+    private static final long DEFAULT_LEASE_TIMEOUT_MILLIS = 300000;
+    private final String envId;
+    private final Map<String, Environment> environments;
+    private final Duration leaseTimeout = Duration.ofMillis(Long.getLong("account.lease.timeout", DEFAULT_LEASE_TIMEOUT_MILLIS));
+    private final Map<String, AccountPool> accountPools = new ConcurrentHashMap<>();
+    private final ThreadLocal<Map<String, Credentials>> leases = ThreadLocal.withInitial(HashMap::new);
 
     /**
-     * Private constructor to initialize the CredentialsManager instance.
+     * Lazily creates the singleton the first time it is requested; class initialization makes this thread-safe.
      */
-    private CredentialsManager() {
-        initialize();
+    private static final class Holder {
+        private static final CredentialsManager INSTANCE = new CredentialsManager();
     }
 
     /**
-     * Initializes the CredentialsManager by reading environment variables and loading properties.
+     * Private constructor to read the environment ID and load every environment.
      */
-    private void initialize() {
+    private CredentialsManager() {
         LOG.info("Reading environment variables");
         String wpEnvironmentId = System.getProperty("envId");
         if ((wpEnvironmentId == null) || (wpEnvironmentId.isEmpty())) {
@@ -34,17 +52,8 @@ public class CredentialsManager {
         } else {
             envId = wpEnvironmentId.toLowerCase();
         }
-        LOG.info("Environment ID --> " + envId);
-
-        properties = new Properties();
-        String propertiesFile = System.getProperty("user.dir") + File.separator + "src" + File.separator + "main" + File.separator + "resources" + File.separator + "environments.properties";
-        try (FileInputStream fis = new FileInputStream(propertiesFile)) {
-            properties.load(fis);
-            LOG.info("Loaded properties from file: " + propertiesFile);
-        } catch (IOException e) {
-            LOG.error("Failed to load properties file: " + e.getMessage());
-            e.printStackTrace();
-        }
+        LOG.info("Environment ID --> {}", envId);
+        environments = loadEnvironments();
     }
 
     /**
@@ -53,22 +62,62 @@ public class CredentialsManager {
      * @return the singleton instance of CredentialsManager
      */
     public static CredentialsManager getInstance() {
-        if (instance == null) {
-            instance = new CredentialsManager();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
 
     /**
-     * Gets the environment setting for the specified key.
+     * Loads environments.properties and groups its keys ({@code <envId>.baseURL},
+     * {@code <envId>.<role>.username}, {@code <envId>.<role>.password} and their numbered
+     * {@code <envId>.<role>.<n>.username} variants) by environment.
      *
-     * @param setting the key of the setting
-     * @return the value of the setting
+     * @return the environments by ID
      */
-    private String getEnvironmentSetting(String setting) {
-        String value = (String) getInstance().properties.get(setting);
-        LOG.info("Getting environment setting for key: " + setting + " --> " + value);
-        return value;
+    private static Map<String, Environment> loadEnvironments() {
+        Properties properties = new Properties();
+        String propertiesFile = System.getProperty("user.dir") + File.separator + "src" + File.separator + "main" + File.separator + "resources" + File.separator + "environments.properties";
+        try (FileInputStream fis = new FileInputStream(propertiesFile)) {
+            properties.load(fis);
+            LOG.info("Loaded properties from file: {}", propertiesFile);
+        } catch (IOException e) {
+            LOG.error("Failed to load properties file: {}", e.getMessage());
+        }
+        Map<String, String> baseURLs = new HashMap<>();
+        Map<String, Map<String, Map<Integer, Map<String, String>>>> accounts = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            String[] parts = key.split("\\.");
+            String value = properties.getProperty(key).trim();
+            String field = parts[parts.length - 1];
+            Integer accountNumber = null;
+            if (parts.length == 3) {
+                accountNumber = UNNUMBERED_ACCOUNT;
+            } else if (parts.length == 4 && parts[2].matches("\\d+")) {
+                accountNumber = Integer.valueOf(parts[2]);
+            }
+            if (parts.length == 2 && BASE_URL_KEY.equals(parts[1])) {
+                baseURLs.put(parts[0], value);
+            } else if (accountNumber != null && (USERNAME_KEY.equals(field) || PASSWORD_KEY.equals(field))) {
+                accounts.computeIfAbsent(parts[0], env -> new HashMap<>())
+                        .computeIfAbsent(parts[1], role -> new TreeMap<>())
+                        .computeIfAbsent(accountNumber, number -> new HashMap<>())
+                        .put(field, value);
+            } else {
+                LOG.warn("Ignoring unrecognized environment setting: {}", key);
+            }
+        }
+        Map<String, Environment> loaded = new HashMap<>();
+        for (Map.Entry<String, String> baseURL : baseURLs.entrySet()) {
+            Map<String, List<Credentials>> roleAccounts = new HashMap<>();
+            accounts.getOrDefault(baseURL.getKey(), Map.of()).forEach((role, numbered) -> {
+                List<Credentials> credentials = new ArrayList<>();
+                numbered.values().forEach(fields ->
+                        credentials.add(new Credentials(fields.getOrDefault(USERNAME_KEY, ""), fields.getOrDefault(PASSWORD_KEY, ""))));
+                roleAccounts.put(role, credentials);
+            });
+            Environment environment = new Environment(baseURL.getKey(), baseURL.getValue(), roleAccounts);
+            loaded.put(environment.id(), environment);
+            LOG.info("Loaded environment: {} --> {} with accounts {}", environment.id(), environment.baseURL(), environment.accounts());
+        }
+        return Map.copyOf(loaded);
     }
 
     /**
@@ -77,19 +126,41 @@ public class CredentialsManager {
      * @return the environment ID
      */
     public String getEnvId() {
-        LOG.info("Getting environment ID: " + envId);
         return envId;
     }
 
+    /**
+     * Gets the settings of the current environment.
+     *
+     * @return the current environment
+     * @throws IllegalStateException if environments.properties does not define the current environment
+     */
+    public Environment getEnvironment() {
+        return getEnvironment(envId);
+    }
+
+    /**
+     * Gets the settings of the given environment, for runs that work with several environments at once.
+     *
+     * @param environmentId the environment ID
+     * @return the environment
+     * @throws IllegalStateException if environments.properties does not define the environment
+     */
+    public Environment getEnvironment(String environmentId) {
+        Environment environment = environments.get(environmentId);
+        if (environment == null) {
+            throw new IllegalStateException("Environment not defined in environments.properties: " + environmentId);
+        }
+        return environment;
+    }
+
     /**
      * Gets the base URL for the current environment.
      *
      * @return the base URL
      */
     public String getBaseURL() {
-        String baseURL = getEnvironmentSetting(getEnvId() + ".baseURL");
-        LOG.info("Getting base URL: " + baseURL);
-        return baseURL;
+        return getEnvironment().baseURL();
     }
 
     /**
@@ -99,9 +170,7 @@ public class CredentialsManager {
      * @return the username
      */
     public String getUsername(String userRole) {
-        String username = getEnvironmentSetting(getEnvId() + "." + userRole + ".username");
-        LOG.info("Getting username for role: " + userRole + " --> " + username);
-        return username;
+        return getEnvironment().getCredentials(userRole).username();
     }
 
     /**
@@ -111,8 +180,76 @@ public class CredentialsManager {
      * @return the password
      */
     public String getPassword(String userRole) {
-        String password = getEnvironmentSetting(getEnvId() + "." + userRole + ".password");
-        LOG.info("Getting password for role: " + userRole + " --> " + password);
-        return password;
+        return getEnvironment().getCredentials(userRole).password();
+    }
+
+    /**
+     * Leases an account of the given role in the current environment to the calling thread.
+     * The account stays leased until {@link #releaseCredentials()} is called, and leasing the same role
+     * again in the meantime returns the same account. If every account of the role is in use, the call
+     * waits for one to be released, up to the {@code account.lease.timeout} system property
+     * (in milliseconds, five minutes by default).
+     *
+     * @param userRole the user role
+     * @return the leased account
+     * @throws IllegalStateException if no account is released within the timeout
+     */
+    public Credentials leaseCredentials(String userRole) {
+        String poolKey = envId + "." + userRole;
+        Map<String, Credentials> threadLeases = leases.get();
+        Credentials credentials = threadLeases.get(poolKey);
+        if (credentials == null) {
+            credentials = getAccountPool(poolKey, userRole).lease(leaseTimeout);
+            threadLeases.put(poolKey, credentials);
+            LOG.info("Leased {} account: {}", userRole, credentials.username());
+        }
+        return credentials;
+    }
+
+    /**
+     * Leases a given account of the role to the calling thread if it is free right now, for example to reuse the
+     * session it logged in with. The account stays leased until {@link #releaseCredentials()} is called.
+     *
+     * @param userRole the user role
+     * @param username the username of the account
+     * @return the leased account, or null if it is leased by another thread, or if the calling thread already
+     *         leases another account of the role
+     */
+    public Credentials tryLeaseCredentials(String userRole, String username) {
+        String poolKey = envId + "." + userRole;
+        Map<String, Credentials> threadLeases = leases.get();
+        Credentials credentials = threadLeases.get(poolKey);
+        if (credentials != null) {
+            return credentials.username().equals(username) ? credentials : null;
+        }
+        credentials = getAccountPool(poolKey, userRole).tryLease(username);
+        if (credentials != null) {
+            threadLeases.put(poolKey, credentials);
+            LOG.info("Leased {} account: {}", userRole, credentials.username());
+        }
+        return credentials;
+    }
+
+    /**
+     * Returns every account leased by the calling thread to its pool.
+     */
+    public void releaseCredentials() {
+        Map<String, Credentials> threadLeases = leases.get();
+        threadLeases.forEach((poolKey, credentials) -> {
+            accountPools.get(poolKey).release(credentials);
+            LOG.info("Released account: {}", credentials.username());
+        });
+        threadLeases.clear();
+    }
+
+    /**
+     * Returns the account pool of a role in the current environment, creating it on first use.
+     *
+     * @param poolKey  the key of the pool
+     * @param userRole the user role
+     * @return the account pool
+     */
+    private AccountPool getAccountPool(String poolKey, String userRole) {
+        return accountPools.computeIfAbsent(poolKey, key -> new AccountPool(key, getEnvironment().getAccounts(userRole)));
     }
 }
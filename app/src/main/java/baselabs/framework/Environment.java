@@ -0,0 +1,53 @@
+package baselabs.framework;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable settings of one test environment: its base URL and the accounts of each user role.
+ *
+ * @param id       the environment ID
+ * @param baseURL  the base URL of the application
+ * @param accounts the accounts of each user role, in the order they are defined
+ */
+public record Environment(String id, String baseURL, Map<String, List<Credentials>> accounts) {
+
+    /**
+     * Constructor that makes a defensive, immutable copy of the accounts.
+     *
+     * @param id       the environment ID
+     * @param baseURL  the base URL of the application
+     * @param accounts the accounts of each user role
+     */
+    public Environment {
+        accounts = accounts.entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, entry -> List.copyOf(entry.getValue())));
+    }
+
+    /**
+     * Returns every account of the given user role.
+     *
+     * @param userRole the user role
+     * @return the accounts of the role
+     * @throws IllegalArgumentException if the environment defines no accounts for the role
+     */
+    public List<Credentials> getAccounts(String userRole) {
+        List<Credentials> roleAccounts = accounts.get(userRole);
+        if (roleAccounts == null || roleAccounts.isEmpty()) {
+            throw new IllegalArgumentException("No credentials for role: " + userRole + " in environment: " + id);
+        }
+        return roleAccounts;
+    }
+
+    /**
+     * Returns the first account of the given user role.
+     *
+     * @param userRole the user role
+     * @return the credentials of the role
+     * @throws IllegalArgumentException if the environment defines no accounts for the role
+     */
+    public Credentials getCredentials(String userRole) {
+        return getAccounts(userRole).get(0);
+    }
+}
@@ -0,0 +1,111 @@
+package baselabs.framework.artifacts;
+
+import baselabs.framework.metrics.MetricsRegistry;
+import baselabs.utils.LoggerManager;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Singleton that captures the state of a browser for diagnosing a failure: a screenshot, a snapshot of the DOM
+ * and the browser console log. Only reading the state from the browser happens on the calling thread; the bytes
+ * are handed to the {@link ArtifactWriter}, which compresses and writes them in the background. An artifact the
+ * driver cannot provide, such as the screenshot of the HTTP driver or the console log of Firefox, is skipped.
+ */
+public final class ArtifactCapture {
+    private static final LoggerManager LOG = LoggerManager.getInstance();
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+    private static final ArtifactCapture INSTANCE = new ArtifactCapture();
+    private final ArtifactWriter writer = ArtifactWriter.getInstance();
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private ArtifactCapture() {
+    }
+
+    /**
+     * Returns the singleton instance of ArtifactCapture.
+     *
+     * @return the singleton instance of ArtifactCapture
+     */
+    public static ArtifactCapture getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Captures the screenshot, DOM snapshot and console log of a browser and queues them to be written.
+     *
+     * @param driver    the browser to capture
+     * @param directory the directory to write the artifacts to
+     * @param label     the prefix of the artifact file names, for example the failed step
+     * @return the files the artifacts will be written to, without the ones that were skipped or dropped
+     */
+    public List<Path> capture(WebDriver driver, Path directory, String label) {
+        List<Path> files = new ArrayList<>();
+        long start = System.nanoTime();
+        if (driver instanceof TakesScreenshot screenshot) {
+            try {
+                queue(files, directory.resolve(label + ".png"), screenshot.getScreenshotAs(OutputType.BYTES), false);
+            } catch (WebDriverException e) {
+                LOG.debug("Skipping screenshot: {}", e.getMessage());
+            }
+        }
+        start = recordCapture("screenshot", start);
+        try {
+            queue(files, directory.resolve(label + ".html"), driver.getPageSource().getBytes(StandardCharsets.UTF_8), true);
+        } catch (WebDriverException e) {
+            LOG.debug("Skipping DOM snapshot: {}", e.getMessage());
+        }
+        start = recordCapture("dom", start);
+        try {
+            StringBuilder console = new StringBuilder();
+            for (LogEntry entry : driver.manage().logs().get(LogType.BROWSER)) {
+                console.append(entry).append(System.lineSeparator());
+            }
+            if (!console.isEmpty()) {
+                queue(files, directory.resolve(label + "-console.log"), console.toString().getBytes(StandardCharsets.UTF_8), true);
+            }
+        } catch (WebDriverException e) {
+            LOG.debug("Skipping console log: {}", e.getMessage());
+        }
+        recordCapture("console", start);
+        return files;
+    }
+
+    /**
+     * Hands an artifact to the writer and keeps its file if it was queued.
+     *
+     * @param files    the files of the queued artifacts
+     * @param file     the file to write
+     * @param data     the content of the artifact
+     * @param compress whether to gzip the content
+     */
+    private void queue(List<Path> files, Path file, byte[] data, boolean compress) {
+        Path target = writer.submit(file, data, compress);
+        if (target != null) {
+            files.add(target);
+        }
+    }
+
+    /**
+     * Records how long the calling thread spent reading an artifact from the browser.
+     *
+     * @param kind  the kind of artifact
+     * @param start when the capture started, from {@link System#nanoTime()}
+     * @return the current time, from {@link System#nanoTime()}, to time the next capture
+     */
+    private static long recordCapture(String kind, long start) {
+        long now = System.nanoTime();
+        METRICS.record(MetricsRegistry.ARTIFACTS, kind, now - start);
+        return now;
+    }
+}
@@ -0,0 +1,167 @@
+package baselabs.framework.artifacts;
+
+import baselabs.framework.metrics.MetricsRegistry;
+import baselabs.framework.selenium.DriverConfig;
+import baselabs.utils.LoggerManager;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Singleton that writes captured artifacts to disk on a background thread, so the scenario thread that
+ * captured them goes back to the browser as soon as the bytes are handed over. Artifacts wait in a queue
+ * of {@code webdriver.artifacts.queue.size} entries, which bounds the memory they hold; when the queue is
+ * full further artifacts are dropped and counted rather than making the scenario thread wait for the disk.
+ */
+public final class ArtifactWriter {
+    private static final LoggerManager LOG = LoggerManager.getInstance();
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+    private static final String GZIP_EXTENSION = ".gz";
+    private final BlockingQueue<Artifact> queue;
+    private final Object pendingLock = new Object();
+    private int pending;
+
+    /**
+     * Artifact waiting to be written.
+     *
+     * @param file     the file to write
+     * @param data     the content of the artifact
+     * @param compress whether the content is gzip compressed
+     * @param browser  the browser it was captured from, whose metrics the write is recorded in
+     */
+    private record Artifact(Path file, byte[] data, boolean compress, String browser) {
+    }
+
+    /**
+     * Lazily creates the singleton the first time it is requested; class initialization makes this thread-safe.
+     */
+    private static final class Holder {
+        private static final ArtifactWriter INSTANCE = new ArtifactWriter(DriverConfig.getInstance().getArtifactQueueSize());
+    }
+
+    /**
+     * Private constructor to start the writer thread.
+     *
+     * @param capacity how many artifacts may wait to be written
+     */
+    private ArtifactWriter(int capacity) {
+        queue = new ArrayBlockingQueue<>(capacity);
+        Thread writer = new Thread(this::drain, "artifact-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Returns the singleton instance of ArtifactWriter.
+     *
+     * @return the singleton instance of ArtifactWriter
+     */
+    public static ArtifactWriter getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Queues an artifact to be written without waiting for it.
+     *
+     * @param file     the file to write; {@code .gz} is appended when the content is compressed
+     * @param data     the content of the artifact, which must not be changed afterwards
+     * @param compress whether to gzip the content, worth it for text but not for already compressed images
+     * @return the file the artifact will be written to, or null if it was dropped because the queue is full
+     */
+    public Path submit(Path file, byte[] data, boolean compress) {
+        Path target = compress ? file.resolveSibling(file.getFileName() + GZIP_EXTENSION) : file;
+        synchronized (pendingLock) {
+            pending++;
+        }
+        if (!queue.offer(new Artifact(target, data, compress, DriverConfig.getInstance().getBrowser()))) {
+            finished();
+            METRICS.increment("artifactsDropped");
+            LOG.warn("Artifact writer queue is full, dropped: {}", target);
+            return null;
+        }
+        return target;
+    }
+
+    /**
+     * Waits until every queued artifact has been written, for example before the JVM exits.
+     *
+     * @param timeout the longest time to wait
+     * @return true if every artifact was written, false if some were still queued when the timeout expired
+     */
+    public boolean flush(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (pendingLock) {
+            while (pending > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    LOG.warn("{} artifacts were not written within {}", pending, timeout);
+                    return false;
+                }
+                try {
+                    pendingLock.wait(TimeUnit.NANOSECONDS.toMillis(remaining) + 1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the queued artifacts one by one for the lifetime of the JVM.
+     */
+    private void drain() {
+        while (true) {
+            Artifact artifact;
+            try {
+                artifact = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            DriverConfig.getInstance().setThreadBrowser(artifact.browser());
+            long start = System.nanoTime();
+            try {
+                write(artifact);
+                METRICS.record(MetricsRegistry.ARTIFACTS, "write", System.nanoTime() - start);
+                METRICS.add("artifactBytes", artifact.data().length);
+            } catch (IOException e) {
+                LOG.error("Failed to write artifact {}: {}", artifact.file(), e.getMessage());
+            } finally {
+                finished();
+            }
+        }
+    }
+
+    /**
+     * Writes an artifact, compressing it if requested.
+     *
+     * @param artifact the artifact to write
+     * @throws IOException if the file cannot be written
+     */
+    private static void write(Artifact artifact) throws IOException {
+        Files.createDirectories(artifact.file().toAbsolutePath().getParent());
+        try (OutputStream file = Files.newOutputStream(artifact.file());
+             OutputStream out = artifact.compress() ? new GZIPOutputStream(file) : file) {
+            out.write(artifact.data());
+        }
+    }
+
+    /**
+     * Counts an artifact as no longer pending and wakes the threads waiting in {@link #flush(Duration)}.
+     */
+    private void finished() {
+        synchronized (pendingLock) {
+            pending--;
+            pendingLock.notifyAll();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package baselabs.framework.metrics;
+
+import baselabs.framework.selenium.DriverConfig;
+import baselabs.utils.LoggerManager;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Singleton registry of the latency histograms and counters collected during a run.
+ * Histograms are grouped by category (for example WebDriver commands or page object methods), and
+ * samples recorded while a Cucumber step is running are also attributed to that step. Gauges keep the
+ * last and the highest value of a measurement that goes up and down, such as the memory of a browser.
+ * Every metric is kept per browser, the browser of the recording thread from {@link DriverConfig#getBrowser()},
+ * so each browser runtime of a matrix run reports only its own samples.
+ */
+public final class MetricsRegistry {
+    public static final String COMMANDS = "commands";
+    public static final String PAGE_METHODS = "pageMethods";
+    public static final String STEPS = "steps";
+    public static final String STEP_COMMANDS = "stepCommands";
+    public static final String ACCOUNT_LEASES = "accountLeases";
+    public static final String GRID_QUEUE = "gridQueue";
+    public static final String ARTIFACTS = "artifacts";
+    private static final LoggerManager LOG = LoggerManager.getInstance();
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+    private final Map<String, Slice> slices = new ConcurrentHashMap<>();
+    private final ThreadLocal<String> currentStep = new ThreadLocal<>();
+
+    /**
+     * Histograms, counters and gauges recorded for one browser.
+     */
+    private static final class Slice {
+        private final Map<String, Map<String, LatencyHistogram>> histograms = new ConcurrentHashMap<>();
+        private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+        private final Map<String, AtomicLong> gauges = new ConcurrentHashMap<>();
+        private final Map<String, LongAccumulator> gaugeMaxima = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private MetricsRegistry() {
+    }
+
+    /**
+     * Returns the singleton instance of MetricsRegistry.
+     *
+     * @return the singleton instance of MetricsRegistry
+     */
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Records a latency sample.
+     *
+     * @param category the histogram category
+     * @param name     the histogram name within the category
+     * @param nanos    the measured latency in nanoseconds
+     */
+    public void record(String category, String name, long nanos) {
+        slice(currentBrowser()).histograms.computeIfAbsent(category, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(name, key -> new LatencyHistogram())
+                .record(nanos);
+    }
+
+    /**
+     * Records the latency of a WebDriver command, attributing it to the running step as well.
+     *
+     * @param command the command name
+     * @param nanos   the measured latency in nanoseconds
+     */
+    public void recordCommand(String command, long nanos) {
+        record(COMMANDS, command, nanos);
+        String step = currentStep.get();
+        if (step != null) {
+            record(STEP_COMMANDS, step, nanos);
+        }
+    }
+
+    /**
+     * Adds to a counter.
+     *
+     * @param name   the counter name
+     * @param amount the amount to add
+     */
+    public void add(String name, long amount) {
+        slice(currentBrowser()).counters.computeIfAbsent(name, key -> new LongAdder()).add(amount);
+    }
+
+    /**
+     * Increments a counter by one.
+     *
+     * @param name the counter name
+     */
+    public void increment(String name) {
+        add(name, 1);
+    }
+
+    /**
+     * Increments a counter of a given browser by one, for threads that do not run scenarios of that browser.
+     *
+     * @param browser the browser the counter belongs to
+     * @param name    the counter name
+     */
+    public void increment(String browser, String name) {
+        slice(browser).counters.computeIfAbsent(name, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Sets the current value of a gauge.
+     *
+     * @param name  the gauge name
+     * @param value the measured value
+     */
+    public void setGauge(String name, long value) {
+        setGauge(currentBrowser(), name, value);
+    }
+
+    /**
+     * Sets the current value of a gauge of a given browser, for threads that do not run scenarios of that browser.
+     *
+     * @param browser the browser the gauge belongs to
+     * @param name    the gauge name
+     * @param value   the measured value
+     */
+    public void setGauge(String browser, String name, long value) {
+        Slice slice = slice(browser);
+        slice.gauges.computeIfAbsent(name, key -> new AtomicLong()).set(value);
+        slice.gaugeMaxima.computeIfAbsent(name, key -> new LongAccumulator(Math::max, Long.MIN_VALUE)).accumulate(value);
+    }
+
+    /**
+     * Sets the step that is running on the calling thread.
+     *
+     * @param step the step text, or null when no step is running
+     */
+    public void setCurrentStep(String step) {
+        if (step == null) {
+            currentStep.remove();
+        } else {
+            currentStep.set(step);
+        }
+    }
+
+    /**
+     * Returns a snapshot of every histogram summary, counter and gauge of a browser.
+     *
+     * @param browser the browser
+     * @return the metrics, grouped by category
+     */
+    public Map<String, Object> snapshot(String browser) {
+        Slice slice = slice(browser);
+        Map<String, Object> snapshot = new TreeMap<>();
+        slice.histograms.forEach((category, byName) -> {
+            Map<String, Object> summaries = new TreeMap<>();
+            byName.forEach((name, histogram) -> summaries.put(name, histogram.summary()));
+            snapshot.put(category, summaries);
+        });
+        Map<String, Object> counterValues = new TreeMap<>();
+        slice.counters.forEach((name, counter) -> counterValues.put(name, counter.sum()));
+        snapshot.put("counters", counterValues);
+        Map<String, Object> gaugeValues = new TreeMap<>();
+        slice.gauges.forEach((name, gauge) -> {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("last", gauge.get());
+            values.put("max", slice.gaugeMaxima.get(name).get());
+            gaugeValues.put(name, values);
+        });
+        snapshot.put("gauges", gaugeValues);
+        return snapshot;
+    }
+
+    /**
+     * Writes a snapshot of the metrics of a browser as JSON.
+     *
+     * @param file    the file to write
+     * @param browser the browser
+     */
+    public void writeJson(Path file, String browser) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.writeString(file, new Json().toJson(snapshot(browser)), StandardCharsets.UTF_8);
+            LOG.info("Wrote {} metrics to: {}", browser, file);
+        } catch (IOException e) {
+            LOG.error("Failed to write metrics: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the metrics of a browser, creating them on first use.
+     *
+     * @param browser the browser
+     * @return the metrics of the browser
+     */
+    private Slice slice(String browser) {
+        return slices.computeIfAbsent(browser, key -> new Slice());
+    }
+
+    /**
+     * Returns the browser the calling thread records metrics for.
+     *
+     * @return the browser of the calling thread
+     */
+    private static String currentBrowser() {
+        return DriverConfig.getInstance().getBrowser();
+    }
+}
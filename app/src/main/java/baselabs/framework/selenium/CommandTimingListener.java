@@ -0,0 +1,72 @@
+package baselabs.framework.selenium;
+
+import baselabs.framework.metrics.MetricsRegistry;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * WebDriver listener that records the wall time of every command sent through a decorated driver.
+ * Commands are named after the interface and method that was called, for example {@code WebElement.click}.
+ */
+public class CommandTimingListener implements WebDriverListener {
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+    private final ThreadLocal<Deque<Long>> startTimes = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Starts timing a command.
+     *
+     * @param target the object the command is called on
+     * @param method the called method
+     * @param args   the method arguments
+     */
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        startTimes.get().push(System.nanoTime());
+    }
+
+    /**
+     * Records the time of a command that completed.
+     *
+     * @param target the object the command was called on
+     * @param method the called method
+     * @param args   the method arguments
+     * @param result the command result
+     */
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        stop(method);
+    }
+
+    /**
+     * Records the time of a command that failed.
+     *
+     * @param target the object the command was called on
+     * @param method the called method
+     * @param args   the method arguments
+     * @param e      the failure
+     */
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        String command = stop(method);
+        METRICS.increment("commandErrors." + command);
+    }
+
+    /**
+     * Stops timing the innermost running command of the calling thread and records it.
+     *
+     * @param method the called method
+     * @return the recorded command name
+     */
+    private String stop(Method method) {
+        String command = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        Long start = startTimes.get().poll();
+        if (start != null) {
+            METRICS.recordCommand(command, System.nanoTime() - start);
+        }
+        return command;
+    }
+}
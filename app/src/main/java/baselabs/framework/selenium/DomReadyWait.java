@@ -0,0 +1,139 @@
+package baselabs.framework.selenium;
+
+import baselabs.utils.LoggerManager;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.Wait;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Wait that re-evaluates its condition as soon as the page changes instead of on a fixed polling interval.
+ * Between evaluations an asynchronous script parks a MutationObserver in the page and returns on the first
+ * DOM mutation, on navigation, or after the polling interval at the latest. Drivers that cannot run
+ * asynchronous scripts fall back to an exponential backoff capped at the polling interval.
+ */
+public class DomReadyWait implements Wait<WebDriver> {
+    private static final LoggerManager LOG = LoggerManager.getInstance();
+    private static final long INITIAL_BACKOFF_MILLIS = 25;
+    private static final String MUTATION_SCRIPT = "var callback = arguments[arguments.length - 1];"
+            + "var done = false;"
+            + "var observer = new MutationObserver(function () { finish(true); });"
+            + "function finish(changed) { if (!done) { done = true; observer.disconnect(); callback(changed); } }"
+            + "observer.observe(document, {childList: true, subtree: true, attributes: true, characterData: true});"
+            + "setTimeout(function () { finish(false); }, arguments[0]);";
+    private final WebDriver driver;
+    private final Duration timeout;
+    private final Duration maxInterval;
+    private volatile boolean mutationObserverSupported;
+
+    /**
+     * Constructor to initialize the wait.
+     *
+     * @param driver      the driver the conditions are evaluated against
+     * @param timeout     how long to wait before failing
+     * @param maxInterval the longest time between two evaluations of the condition
+     */
+    public DomReadyWait(WebDriver driver, Duration timeout, Duration maxInterval) {
+        this.driver = driver;
+        this.timeout = timeout;
+        this.maxInterval = maxInterval;
+        this.mutationObserverSupported = driver instanceof JavascriptExecutor;
+    }
+
+    /**
+     * Returns the timeout of the wait.
+     *
+     * @return the timeout duration
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Waits until the condition returns a value that is neither null nor false.
+     *
+     * @param isTrue the condition to evaluate
+     * @param <T>    the type of the condition value
+     * @return the value returned by the condition
+     * @throws TimeoutException if the condition is not met before the timeout
+     */
+    @Override
+    public <T> T until(Function<? super WebDriver, T> isTrue) {
+        return until(isTrue, timeout);
+    }
+
+    /**
+     * Waits until the condition returns a value that is neither null nor false, using a specific timeout.
+     *
+     * @param isTrue      the condition to evaluate
+     * @param waitTimeout how long to wait before failing
+     * @param <T>         the type of the condition value
+     * @return the value returned by the condition
+     * @throws TimeoutException if the condition is not met before the timeout
+     */
+    public <T> T until(Function<? super WebDriver, T> isTrue, Duration waitTimeout) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        long backoffMillis = INITIAL_BACKOFF_MILLIS;
+        RuntimeException lastException = null;
+        while (true) {
+            try {
+                T value = isTrue.apply(driver);
+                if (value != null && !Boolean.FALSE.equals(value)) {
+                    return value;
+                }
+            } catch (NotFoundException | StaleElementReferenceException e) {
+                lastException = e;
+            }
+            long remainingMillis = Duration.ofNanos(deadline - System.nanoTime()).toMillis();
+            if (remainingMillis <= 0) {
+                throw new TimeoutException("Expected condition failed: " + isTrue + " (tried for "
+                        + waitTimeout.toMillis() + " ms)", lastException);
+            }
+            long intervalMillis = Math.min(remainingMillis, maxInterval.toMillis());
+            if (mutationObserverSupported) {
+                awaitMutation(intervalMillis);
+            } else {
+                sleep(Math.min(backoffMillis, intervalMillis));
+                backoffMillis = Math.min(backoffMillis * 2, maxInterval.toMillis());
+            }
+        }
+    }
+
+    /**
+     * Blocks until the DOM changes, the page navigates, or the interval elapses.
+     *
+     * @param intervalMillis the longest time to block
+     */
+    private void awaitMutation(long intervalMillis) {
+        try {
+            ((JavascriptExecutor) driver).executeAsyncScript(MUTATION_SCRIPT, intervalMillis);
+        } catch (UnsupportedCommandException e) {
+            LOG.warn("Asynchronous scripts are not supported, falling back to backoff polling: {}", e.getMessage());
+            mutationObserverSupported = false;
+        } catch (WebDriverException e) {
+            LOG.debug("Mutation observer interrupted, re-evaluating condition: {}", e.getMessage());
+            sleep(INITIAL_BACKOFF_MILLIS);
+        }
+    }
+
+    /**
+     * Sleeps for the given time.
+     *
+     * @param millis the time to sleep in milliseconds
+     */
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WebDriverException("Interrupted while waiting", e);
+        }
+    }
+}
@@ -1,29 +1,160 @@
 package baselabs.framework.selenium;
 
 import baselabs.utils.LoggerManager;
+import org.openqa.selenium.PageLoadStrategy;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.Set;
 
 /**
- * Singleton class to manage WebDriver configuration settings.
+ * Singleton holding the WebDriver configuration settings.
+ * The settings are read, parsed and validated once, when the class is first used, and never change
+ * afterwards, so every thread reads them without locking. A setting is taken from the system property
+ * of the same name (for example {@code -Dwebdriver.timeout=20000}), else from the environment variable
+ * with dots replaced by underscores in upper case ({@code WEBDRIVER_TIMEOUT}), else from webdriver.properties.
+ * Every environment variable carries the {@code WEBDRIVER_} prefix, so {@code browser} is read from
+ * {@code WEBDRIVER_BROWSER} rather than the standard {@code BROWSER} variable, which holds a browser path.
+ * The browser can additionally be overridden per thread, which lets a browser matrix run several browsers
+ * in the same JVM; threads started by such a thread inherit its browser.
+ * With {@code webdriver.mode=remote} sessions are started on the Selenium Grid at {@code webdriver.remote.url}
+ * instead of on this machine.
  */
-public class DriverConfig {
+public final class DriverConfig {
     private static final LoggerManager LOG = LoggerManager.getInstance();
     private static final String WEB_DRIVER_FILE_PATH = System.getProperty("user.dir") + File.separator + "src"
             + File.separator + "main" + File.separator + "resources" + File.separator + "webdriver.properties";
-    private static DriverConfig instance;
-    private String browser;
-    private Properties properties;
+    public static final String HTTP_BROWSER = "http";
+    private static final Set<String> SUPPORTED_BROWSERS = Set.of("chrome", "edge", "firefox", HTTP_BROWSER);
+    private static final Set<String> WAIT_STRATEGIES = Set.of("mutation", "polling");
+    private static final String SETTING_PREFIX = "webdriver.";
+    private static final String REMOTE_MODE = "remote";
+    private static final Set<String> DRIVER_MODES = Set.of("local", REMOTE_MODE);
+    private static final Set<String> ARTIFACT_CAPTURE_MODES = Set.of("off", "failure", "step");
+    private final InheritableThreadLocal<String> threadBrowser = new InheritableThreadLocal<>();
+    private final Properties fileProperties;
+    private final String browser;
+    private final List<String> browsers;
+    private final Duration implicitWaitTime;
+    private final Duration timeout;
+    private final Duration pollingTime;
+    private final Duration scenarioTimeoutBudget;
+    private final boolean headlessMode;
+    private final int poolMaxSize;
+    private final int httpPoolMaxSize;
+    private final Duration poolLeaseTimeout;
+    private final int warmupSize;
+    private final int sessionMaxScenarios;
+    private final boolean instrumentationEnabled;
+    private final String waitStrategy;
+    private final PageLoadStrategy pageLoadStrategy;
+    private final ResourceBlocker resourceBlocker;
+    private final String mode;
+    private final URL remoteUrl;
+    private final int remoteSessionRetries;
+    private final Duration remoteRetryBackoff;
+    private final Duration remoteStatusInterval;
+    private final String artifactCapture;
+    private final Path artifactDir;
+    private final int artifactQueueSize;
+    private final Duration monitorInterval;
+    private final int monitorMaxRssMb;
+    private final int monitorMaxCpuPercent;
 
     /**
-     * Protected constructor to initialize the DriverConfig instance.
+     * Lazily creates the singleton the first time it is requested; class initialization makes this thread-safe.
      */
-    protected DriverConfig() {
-        initialize();
+    private static final class Holder {
+        private static final DriverConfig INSTANCE = new DriverConfig();
+    }
+
+    /**
+     * Private constructor to read and validate every WebDriver setting.
+     *
+     * @throws IllegalStateException if a setting is missing or malformed
+     */
+    private DriverConfig() {
+        LOG.info("Reading WebDriver config");
+        fileProperties = new Properties();
+        try (FileInputStream fis = new FileInputStream(WEB_DRIVER_FILE_PATH)) {
+            fileProperties.load(fis);
+            LOG.info("Loaded WebDriver properties from file: {}", WEB_DRIVER_FILE_PATH);
+        } catch (IOException e) {
+            LOG.error("Unable to load properties file: {}", e.getMessage());
+        }
+        String selectedBrowser = getSetting("browser");
+        browser = selectedBrowser == null || selectedBrowser.isBlank() ? "chrome" : selectedBrowser.trim().toLowerCase();
+        if (!SUPPORTED_BROWSERS.contains(browser)) {
+            throw new IllegalStateException("Unsupported browser: " + browser + ", expected one of " + SUPPORTED_BROWSERS);
+        }
+        browsers = List.copyOf(getListSetting("browsers"));
+        for (String matrixBrowser : browsers) {
+            if (!SUPPORTED_BROWSERS.contains(matrixBrowser)) {
+                throw invalid("browsers", String.join(",", browsers), "a list of " + SUPPORTED_BROWSERS);
+            }
+        }
+        implicitWaitTime = getDurationSetting("webdriver.implicit.wait.time");
+        timeout = getDurationSetting("webdriver.timeout");
+        pollingTime = getDurationSetting("webdriver.polling.time");
+        scenarioTimeoutBudget = getDurationSetting("webdriver.scenario.timeout.budget");
+        headlessMode = getBooleanSetting("webdriver.headless.mode");
+        poolMaxSize = getIntSetting("webdriver.pool.max.size", 1);
+        httpPoolMaxSize = getIntSetting("webdriver.http.pool.max.size", 1);
+        poolLeaseTimeout = getDurationSetting("webdriver.pool.lease.timeout");
+        warmupSize = getIntSetting("webdriver.warmup.size", 0);
+        sessionMaxScenarios = getIntSetting("webdriver.session.max.scenarios", 0);
+        instrumentationEnabled = getBooleanSetting("webdriver.instrumentation.enabled");
+        waitStrategy = getRequiredSetting("webdriver.wait.strategy").toLowerCase();
+        if (!WAIT_STRATEGIES.contains(waitStrategy)) {
+            throw invalid("webdriver.wait.strategy", waitStrategy, "one of " + WAIT_STRATEGIES);
+        }
+        String pageLoad = getRequiredSetting("webdriver.page.load.strategy");
+        try {
+            pageLoadStrategy = PageLoadStrategy.valueOf(pageLoad.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw invalid("webdriver.page.load.strategy", pageLoad, "normal, eager or none");
+        }
+        try {
+            resourceBlocker = new ResourceBlocker(getListSetting("webdriver.blocked.resources"), getListSetting("webdriver.blocked.url.patterns"));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid WebDriver setting webdriver.blocked.resources: " + e.getMessage(), e);
+        }
+        mode = getRequiredSetting("webdriver.mode").toLowerCase();
+        if (!DRIVER_MODES.contains(mode)) {
+            throw invalid("webdriver.mode", mode, "one of " + DRIVER_MODES);
+        }
+        remoteUrl = isRemote() ? getUrlSetting("webdriver.remote.url") : null;
+        remoteSessionRetries = getIntSetting("webdriver.remote.session.retries", 0);
+        remoteRetryBackoff = getDurationSetting("webdriver.remote.retry.backoff");
+        remoteStatusInterval = getDurationSetting("webdriver.remote.status.interval");
+        artifactCapture = getRequiredSetting("webdriver.artifacts.capture").toLowerCase();
+        if (!ARTIFACT_CAPTURE_MODES.contains(artifactCapture)) {
+            throw invalid("webdriver.artifacts.capture", artifactCapture, "one of " + ARTIFACT_CAPTURE_MODES);
+        }
+        artifactDir = Paths.get(getRequiredSetting("webdriver.artifacts.dir"));
+        artifactQueueSize = getIntSetting("webdriver.artifacts.queue.size", 1);
+        monitorInterval = getDurationSetting("webdriver.monitor.interval");
+        monitorMaxRssMb = getIntSetting("webdriver.monitor.max.rss.mb", 0);
+        monitorMaxCpuPercent = getIntSetting("webdriver.monitor.max.cpu.percent", 0);
+        LOG.info("Loaded WebDriver config: browser={}, browsers={}, implicitWaitTime={}, timeout={}, pollingTime={}, "
+                + "scenarioTimeoutBudget={}, headlessMode={}, poolMaxSize={}, httpPoolMaxSize={}, poolLeaseTimeout={}, warmupSize={}, "
+                + "sessionMaxScenarios={}, instrumentationEnabled={}, waitStrategy={}, pageLoadStrategy={}, blockedUrlPatterns={}, "
+                + "mode={}, remoteUrl={}, remoteSessionRetries={}, remoteRetryBackoff={}, remoteStatusInterval={}, "
+                + "artifactCapture={}, artifactDir={}, artifactQueueSize={}, monitorInterval={}, monitorMaxRssMb={}, monitorMaxCpuPercent={}",
+                browser, browsers, implicitWaitTime, timeout, pollingTime, scenarioTimeoutBudget, headlessMode, poolMaxSize, httpPoolMaxSize, poolLeaseTimeout,
+                warmupSize, sessionMaxScenarios, instrumentationEnabled, waitStrategy, pageLoadStrategy, resourceBlocker.getBlockedUrlPatterns(),
+                mode, remoteUrl, remoteSessionRetries, remoteRetryBackoff, remoteStatusInterval,
+                artifactCapture, artifactDir, artifactQueueSize, monitorInterval, monitorMaxRssMb, monitorMaxCpuPercent);
     }
 
     /**
@@ -32,56 +163,194 @@ public class DriverConfig {
      * @return the singleton instance of DriverConfig
      */
     public static DriverConfig getInstance() {
-        if (instance == null || instance.properties == null) {
-            instance = new DriverConfig();
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Gets the raw value of a setting, applying system property and environment variable overrides.
+     *
+     * @param setting the key of the setting
+     * @return the value of the setting, or null if it is not set anywhere
+     */
+    private String getSetting(String setting) {
+        String value = System.getProperty(setting);
+        if (value == null) {
+            value = System.getenv(environmentVariable(setting));
+        }
+        if (value == null) {
+            value = fileProperties.getProperty(setting);
         }
-        return instance;
+        return value;
     }
 
     /**
-     * Initializes the DriverConfig by reading the WebDriver configuration properties.
+     * Returns the environment variable that overrides a setting: the key with the {@code webdriver.} prefix,
+     * added when missing, in upper case with dots replaced by underscores.
+     *
+     * @param setting the key of the setting
+     * @return the name of the environment variable, for example WEBDRIVER_BROWSER for browser
      */
-    private void initialize() {
-        LOG.info("Reading WebDriver config");
-        String selectedBrowser = System.getProperty("browser");
-        if ((selectedBrowser == null) || (selectedBrowser.isEmpty())) {
-            browser = "chrome";
-        } else {
-            browser = selectedBrowser.toLowerCase();
+    private static String environmentVariable(String setting) {
+        String prefixed = setting.startsWith(SETTING_PREFIX) ? setting : SETTING_PREFIX + setting;
+        return prefixed.replace('.', '_').toUpperCase();
+    }
+
+    /**
+     * Gets a setting that must have a non-blank value.
+     *
+     * @param setting the key of the setting
+     * @return the trimmed value of the setting
+     * @throws IllegalStateException if the setting is missing or blank
+     */
+    private String getRequiredSetting(String setting) {
+        String value = getSetting(setting);
+        if (value == null || value.isBlank()) {
+            throw new IllegalStateException("Missing WebDriver setting: " + setting);
+        }
+        return value.trim();
+    }
+
+    /**
+     * Gets a setting holding a non-negative number of milliseconds.
+     *
+     * @param setting the key of the setting
+     * @return the setting as a duration
+     * @throws IllegalStateException if the setting is missing or not a non-negative number
+     */
+    private Duration getDurationSetting(String setting) {
+        String value = getRequiredSetting(setting);
+        try {
+            long millis = Long.parseLong(value);
+            if (millis >= 0) {
+                return Duration.ofMillis(millis);
+            }
+        } catch (NumberFormatException e) {
+            LOG.debug("Malformed duration for {}: {}", setting, e.getMessage());
         }
-        LOG.info("Selected browser is --> " + browser);
+        throw invalid(setting, value, "a non-negative number of milliseconds");
+    }
 
-        properties = new Properties();
-        Properties webDriverProperties = new Properties();
+    /**
+     * Gets a setting holding an integer.
+     *
+     * @param setting the key of the setting
+     * @param minimum the smallest accepted value
+     * @return the setting as an integer
+     * @throws IllegalStateException if the setting is missing, not an integer or below the minimum
+     */
+    private int getIntSetting(String setting, int minimum) {
+        String value = getRequiredSetting(setting);
         try {
-            webDriverProperties.load(new FileInputStream(WEB_DRIVER_FILE_PATH));
-            LOG.info("Loaded WebDriver properties from file: " + WEB_DRIVER_FILE_PATH);
-        } catch (IOException e) {
-            LOG.error("Unable to load properties file: " + e.getMessage());
+            int number = Integer.parseInt(value);
+            if (number >= minimum) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            LOG.debug("Malformed integer for {}: {}", setting, e.getMessage());
         }
-        properties.putAll(webDriverProperties);
+        throw invalid(setting, value, "an integer of at least " + minimum);
     }
 
     /**
-     * Returns the browser name.
+     * Gets a setting holding a boolean.
+     *
+     * @param setting the key of the setting
+     * @return the setting as a boolean
+     * @throws IllegalStateException if the setting is missing or neither true nor false
+     */
+    private boolean getBooleanSetting(String setting) {
+        String value = getRequiredSetting(setting);
+        if ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) {
+            return Boolean.parseBoolean(value);
+        }
+        throw invalid(setting, value, "true or false");
+    }
+
+    /**
+     * Gets a setting holding an absolute HTTP URL.
+     *
+     * @param setting the key of the setting
+     * @return the setting as a URL
+     * @throws IllegalStateException if the setting is missing or not an HTTP URL
+     */
+    private URL getUrlSetting(String setting) {
+        String value = getRequiredSetting(setting);
+        try {
+            URL url = URI.create(value).toURL();
+            if (url.getProtocol().startsWith("http")) {
+                return url;
+            }
+        } catch (IllegalArgumentException | MalformedURLException e) {
+            LOG.debug("Malformed URL for {}: {}", setting, e.getMessage());
+        }
+        throw invalid(setting, value, "an http or https URL");
+    }
+
+    /**
+     * Gets a comma separated setting as a list.
+     *
+     * @param setting the key of the setting
+     * @return the trimmed, lower case, non-empty values of the setting
+     */
+    private List<String> getListSetting(String setting) {
+        String value = getSetting(setting);
+        List<String> values = new ArrayList<>();
+        if (value != null) {
+            for (String item : value.split(",")) {
+                if (!item.isBlank()) {
+                    values.add(item.trim().toLowerCase());
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Builds the exception thrown for a malformed setting.
+     *
+     * @param setting  the key of the setting
+     * @param value    the malformed value
+     * @param expected a description of the accepted values
+     * @return the exception to throw
+     */
+    private static IllegalStateException invalid(String setting, String value, String expected) {
+        return new IllegalStateException("Invalid WebDriver setting " + setting + "=" + value + ", expected " + expected);
+    }
+
+    /**
+     * Returns the browser of the calling thread: its override if one is set, else the configured browser.
      *
      * @return the browser name
      */
     public String getBrowser() {
-        LOG.info("Getting browser: " + browser);
-        return browser;
+        String override = threadBrowser.get();
+        return override == null ? browser : override;
     }
 
     /**
-     * Gets the WebDriver setting for the specified key.
+     * Overrides the browser of the calling thread and of the threads it starts afterwards.
      *
-     * @param setting the key of the setting
-     * @return the value of the setting
+     * @param matrixBrowser the browser to use, or null to go back to the configured browser
+     * @throws IllegalArgumentException if the browser is not supported
      */
-    private String getWebDriverSetting(String setting) {
-        String value = (String) properties.get(setting);
-        LOG.info("Getting WebDriver setting for key: " + setting + " --> " + value);
-        return value;
+    public void setThreadBrowser(String matrixBrowser) {
+        if (matrixBrowser == null) {
+            threadBrowser.remove();
+            return;
+        }
+        if (!SUPPORTED_BROWSERS.contains(matrixBrowser)) {
+            throw new IllegalArgumentException("Unsupported browser: " + matrixBrowser + ", expected one of " + SUPPORTED_BROWSERS);
+        }
+        threadBrowser.set(matrixBrowser);
+    }
+
+    /**
+     * Returns the browsers of the matrix run, set with the {@code browsers} setting as a comma separated list.
+     *
+     * @return the matrix browsers, or an empty list outside of a matrix run
+     */
+    public List<String> getBrowsers() {
+        return browsers;
     }
 
     /**
@@ -90,9 +359,7 @@ public class DriverConfig {
      * @return the implicit wait time
      */
     public Duration getImplicitWaitTime() {
-        long millis = Long.parseLong(getWebDriverSetting("webdriver.implicit.wait.time"));
-        LOG.info("Getting implicit wait time: " + millis + " milliseconds");
-        return Duration.ofMillis(millis);
+        return implicitWaitTime;
     }
 
     /**
@@ -101,9 +368,7 @@ public class DriverConfig {
      * @return the timeout duration
      */
     public Duration getTimeout() {
-        long millis = Long.parseLong(getWebDriverSetting("webdriver.timeout"));
-        LOG.info("Getting timeout duration: " + millis + " milliseconds");
-        return Duration.ofMillis(millis);
+        return timeout;
     }
 
     /**
@@ -112,9 +377,16 @@ public class DriverConfig {
      * @return the polling time duration
      */
     public Duration getPollingTime() {
-        long millis = Long.parseLong(getWebDriverSetting("webdriver.polling.time"));
-        LOG.info("Getting polling time duration: " + millis + " milliseconds");
-        return Duration.ofMillis(millis);
+        return pollingTime;
+    }
+
+    /**
+     * Returns the total time the waits of one scenario may take. A value of zero disables the budget.
+     *
+     * @return the scenario timeout budget
+     */
+    public Duration getScenarioTimeoutBudget() {
+        return scenarioTimeoutBudget;
     }
 
     /**
@@ -123,8 +395,192 @@ public class DriverConfig {
      * @return true if headless mode is enabled, false otherwise
      */
     public boolean getHeadlessMode() {
-        boolean headlessMode = Boolean.parseBoolean(getWebDriverSetting("webdriver.headless.mode"));
-        LOG.info("Getting headless mode: " + headlessMode);
         return headlessMode;
     }
+
+    /**
+     * Returns the maximum number of WebDriver sessions the driver pool may hold.
+     *
+     * @return the maximum pool size
+     */
+    public int getPoolMaxSize() {
+        return poolMaxSize;
+    }
+
+    /**
+     * Returns the maximum number of HTTP driver sessions the driver pool may hold. HTTP sessions do not
+     * start a browser, so their pool is sized separately from the browser pools.
+     *
+     * @return the maximum HTTP pool size
+     */
+    public int getHttpPoolMaxSize() {
+        return httpPoolMaxSize;
+    }
+
+    /**
+     * Returns how long a thread waits for a free WebDriver session before giving up.
+     *
+     * @return the pool lease timeout duration
+     */
+    public Duration getPoolLeaseTimeout() {
+        return poolLeaseTimeout;
+    }
+
+    /**
+     * Returns how many WebDriver sessions are started in the background before the first scenario.
+     *
+     * @return the number of sessions to warm up
+     */
+    public int getWarmupSize() {
+        return warmupSize;
+    }
+
+    /**
+     * Returns how many scenarios a WebDriver session may run before it is relaunched.
+     * A value of zero keeps the session for the whole run.
+     *
+     * @return the maximum number of scenarios per session
+     */
+    public int getSessionMaxScenarios() {
+        return sessionMaxScenarios;
+    }
+
+    /**
+     * Returns whether WebDriver commands are timed and reported.
+     *
+     * @return true if command instrumentation is enabled, false otherwise
+     */
+    public boolean getInstrumentationEnabled() {
+        return instrumentationEnabled;
+    }
+
+    /**
+     * Returns the strategy used by explicit waits: "mutation" re-evaluates conditions when the DOM changes,
+     * "polling" uses a FluentWait with the configured polling time.
+     *
+     * @return the wait strategy
+     */
+    public String getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    /**
+     * Returns the page load strategy used when navigating.
+     *
+     * @return the page load strategy
+     */
+    public PageLoadStrategy getPageLoadStrategy() {
+        return pageLoadStrategy;
+    }
+
+    /**
+     * Returns the resource blocker built from the blocked resource types and URL patterns.
+     *
+     * @return the resource blocker
+     */
+    public ResourceBlocker getResourceBlocker() {
+        return resourceBlocker;
+    }
+
+    /**
+     * Returns whether sessions are started on a Selenium Grid instead of on this machine.
+     *
+     * @return true if {@code webdriver.mode} is remote, false otherwise
+     */
+    public boolean isRemote() {
+        return REMOTE_MODE.equals(mode);
+    }
+
+    /**
+     * Returns the URL of the Selenium Grid or standalone server used in remote mode.
+     *
+     * @return the remote URL, or null in local mode
+     */
+    public URL getRemoteUrl() {
+        return remoteUrl;
+    }
+
+    /**
+     * Returns how many times the creation of a remote session is retried after the grid fails to create it.
+     *
+     * @return the number of retries
+     */
+    public int getRemoteSessionRetries() {
+        return remoteSessionRetries;
+    }
+
+    /**
+     * Returns the wait before the first retry of a remote session creation; it doubles on every further retry.
+     *
+     * @return the initial retry backoff
+     */
+    public Duration getRemoteRetryBackoff() {
+        return remoteRetryBackoff;
+    }
+
+    /**
+     * Returns how often the grid status is polled while a session request waits for a free slot.
+     *
+     * @return the status polling interval
+     */
+    public Duration getRemoteStatusInterval() {
+        return remoteStatusInterval;
+    }
+
+    /**
+     * Returns when failure artifacts (screenshot, DOM snapshot and browser console log) are captured:
+     * "failure" once a scenario fails, "step" after every step as well, or "off".
+     *
+     * @return the artifact capture mode
+     */
+    public String getArtifactCapture() {
+        return artifactCapture;
+    }
+
+    /**
+     * Returns the directory the captured artifacts are written to.
+     *
+     * @return the artifact directory
+     */
+    public Path getArtifactDir() {
+        return artifactDir;
+    }
+
+    /**
+     * Returns how many captured artifacts may wait to be written before further ones are dropped.
+     *
+     * @return the capacity of the artifact writer queue
+     */
+    public int getArtifactQueueSize() {
+        return artifactQueueSize;
+    }
+
+    /**
+     * Returns how often the processes of local browser sessions are sampled. A value of zero disables the monitor.
+     *
+     * @return the sampling interval
+     */
+    public Duration getMonitorInterval() {
+        return monitorInterval;
+    }
+
+    /**
+     * Returns the resident memory a local browser session, driver and browser processes together, may use
+     * before it is relaunched. A value of zero sets no limit.
+     *
+     * @return the memory limit in megabytes
+     */
+    public int getMonitorMaxRssMb() {
+        return monitorMaxRssMb;
+    }
+
+    /**
+     * Returns the CPU usage, in percent of one core, that a local browser session may keep up over consecutive
+     * samples before it is relaunched. A value of zero sets no limit.
+     *
+     * @return the CPU limit in percent
+     */
+    public int getMonitorMaxCpuPercent() {
+        return monitorMaxCpuPercent;
+    }
 }
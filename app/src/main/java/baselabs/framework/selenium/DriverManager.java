@@ -4,6 +4,7 @@ import org.openqa.selenium.*;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeDriverService;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.HasCdp;
 import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.edge.EdgeDriverService;
 import org.openqa.selenium.edge.EdgeOptions;
@@ -11,43 +12,62 @@ import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxDriverLogLevel;
 import org.openqa.selenium.firefox.FirefoxOptions;
 import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.logging.LogType;
+import org.openqa.selenium.logging.LoggingPreferences;
+import org.openqa.selenium.remote.Augmenter;
 import org.openqa.selenium.remote.service.DriverService;
+import org.openqa.selenium.support.events.EventFiringDecorator;
 import org.openqa.selenium.support.ui.FluentWait;
 import org.openqa.selenium.support.ui.Wait;
+import baselabs.framework.selenium.http.HttpDriver;
 import baselabs.utils.LoggerManager;
 
 import java.io.File;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
 
 /**
- * Singleton class to manage Selenium WebDriver instances.
+ * Class to manage a Selenium WebDriver session.
+ * Sessions are owned by {@link DriverPool} and leased to one thread at a time. They are started on this
+ * machine, or on a Selenium Grid when {@code webdriver.mode} is remote. The {@code http} browser is an
+ * {@link HttpDriver}, which always runs in-process. The processes of local browser sessions are watched by
+ * the {@link ProcessMonitor}, which marks a session unhealthy once it uses too much memory or CPU.
  */
 public class DriverManager {
     private static final LoggerManager LOG = LoggerManager.getInstance();
     public static final DriverConfig DRIVER_CONFIG = DriverConfig.getInstance();
-    private static DriverManager instance;
+    private static final String BLANK_PAGE = "about:blank";
+    private static final String MUTATION_WAIT_STRATEGY = "mutation";
+    private static final String CLEAR_STORAGE_SCRIPT = "window.localStorage.clear(); window.sessionStorage.clear();";
+    private final String browser;
     private WebDriver driver;
+    private DriverService driverService;
     private Wait<WebDriver> wait;
+    private String mainWindow;
+    private int scenarioCount;
+    private volatile boolean healthy = true;
 
     /**
-     * Protected constructor to initialize the DriverManager instance.
+     * Protected constructor to start a session of the given browser.
+     *
+     * @param browser the browser to start
      */
-    protected DriverManager() {
+    protected DriverManager(String browser) {
+        this.browser = browser;
         initialize();
     }
 
     /**
-     * Returns the singleton instance of DriverManager.
+     * Returns the DriverManager leased by the calling thread from the pool of its browser.
      *
-     * @return the singleton instance of DriverManager
+     * @return the DriverManager of the calling thread
      */
     public static DriverManager getInstance() {
-        if (instance == null || instance.driver == null) {
-            instance = new DriverManager();
-        }
-        return instance;
+        return DriverPool.getInstance().lease();
     }
 
     /**
@@ -55,15 +75,12 @@ public class DriverManager {
      */
     private void initialize() {
         LOG.info("Initializing Selenium WebDriver Manager");
-        switch (DRIVER_CONFIG.getBrowser()) {
+        PageLoadStrategy pageLoadStrategy = DRIVER_CONFIG.getPageLoadStrategy();
+        ResourceBlocker resourceBlocker = DRIVER_CONFIG.getResourceBlocker();
+        switch (browser) {
             case "chrome" -> {
-                LOG.info("Setting up ChromeDriver");
-                DriverService.Builder<ChromeDriverService, ChromeDriverService.Builder> builder = new ChromeDriverService.Builder()
-                        .withSilent(true);
-                ChromeDriverService service = builder.build();
-
                 ChromeOptions chromeOptions = new ChromeOptions();
-                chromeOptions.setPageLoadStrategy(PageLoadStrategy.NORMAL);
+                chromeOptions.setPageLoadStrategy(pageLoadStrategy);
                 chromeOptions.setExperimentalOption("excludeSwitches", Collections.singletonList("enable-automation"));
 
                 chromeOptions.addArguments("--password-store=basic");
@@ -71,22 +88,29 @@ public class DriverManager {
                 prefs.put("credentials_enable_service", false);
                 prefs.put("profile.password_manager_enabled", false);
                 chromeOptions.setExperimentalOption("prefs", prefs);
+                collectConsoleLogs(chromeOptions, ChromeOptions.LOGGING_PREFS);
 
                 if (DRIVER_CONFIG.getHeadlessMode()) {
                     chromeOptions.addArguments("--headless");
                 }
 
-                driver = new ChromeDriver(service, chromeOptions);
-                LOG.info("ChromeDriver initialized");
+                if (DRIVER_CONFIG.isRemote()) {
+                    driver = startRemote(chromeOptions, resourceBlocker);
+                } else {
+                    LOG.info("Setting up ChromeDriver");
+                    DriverService.Builder<ChromeDriverService, ChromeDriverService.Builder> builder = new ChromeDriverService.Builder()
+                            .withSilent(true);
+                    ChromeDriverService service = builder.build();
+                    ChromeDriver chromeDriver = new ChromeDriver(service, chromeOptions);
+                    resourceBlocker.applyTo(chromeDriver);
+                    driver = chromeDriver;
+                    driverService = service;
+                    LOG.info("ChromeDriver initialized");
+                }
             }
             case "edge" -> {
-                LOG.info("Setting up EdgeDriver");
-                DriverService.Builder<EdgeDriverService, EdgeDriverService.Builder> builder = new EdgeDriverService.Builder()
-                        .withSilent(true);
-                EdgeDriverService service = builder.build();
-
                 EdgeOptions edgeOptions = new EdgeOptions();
-                edgeOptions.setPageLoadStrategy(PageLoadStrategy.NORMAL);
+                edgeOptions.setPageLoadStrategy(pageLoadStrategy);
                 edgeOptions.setExperimentalOption("excludeSwitches", Collections.singletonList("enable-automation"));
 
                 edgeOptions.addArguments("--password-store=basic");
@@ -94,50 +118,134 @@ public class DriverManager {
                 prefs.put("credentials_enable_service", false);
                 prefs.put("profile.password_manager_enabled", false);
                 edgeOptions.setExperimentalOption("prefs", prefs);
+                collectConsoleLogs(edgeOptions, EdgeOptions.LOGGING_PREFS);
 
                 if (DRIVER_CONFIG.getHeadlessMode()) {
                     edgeOptions.addArguments("--headless");
                 }
 
-                driver = new EdgeDriver(service, edgeOptions);
-                LOG.info("EdgeDriver initialized");
+                if (DRIVER_CONFIG.isRemote()) {
+                    driver = startRemote(edgeOptions, resourceBlocker);
+                } else {
+                    LOG.info("Setting up EdgeDriver");
+                    DriverService.Builder<EdgeDriverService, EdgeDriverService.Builder> builder = new EdgeDriverService.Builder()
+                            .withSilent(true);
+                    EdgeDriverService service = builder.build();
+                    EdgeDriver edgeDriver = new EdgeDriver(service, edgeOptions);
+                    resourceBlocker.applyTo(edgeDriver);
+                    driver = edgeDriver;
+                    driverService = service;
+                    LOG.info("EdgeDriver initialized");
+                }
             }
             case "firefox" -> {
-                LOG.info("Setting up FirefoxDriver");
-                String firefoxLogFilePath = System.getProperty("user.dir") + File.separator + "logs" + File.separator
-                        + "firefox.log";
-                DriverService.Builder<GeckoDriverService, GeckoDriverService.Builder> builder = new GeckoDriverService.Builder()
-                        .withLogFile(new File(firefoxLogFilePath));
-                GeckoDriverService service = builder.build();
-
                 FirefoxOptions firefoxOptions = new FirefoxOptions();
-                firefoxOptions.setPageLoadStrategy(PageLoadStrategy.NORMAL);
+                firefoxOptions.setPageLoadStrategy(pageLoadStrategy);
                 firefoxOptions.setLogLevel(FirefoxDriverLogLevel.FATAL);
                 if (DRIVER_CONFIG.getHeadlessMode()) {
                     firefoxOptions.addArguments("--headless");
                 }
+                resourceBlocker.applyTo(firefoxOptions);
 
-                driver = new FirefoxDriver(service, firefoxOptions);
-                LOG.info("FirefoxDriver initialized");
+                if (DRIVER_CONFIG.isRemote()) {
+                    driver = startRemote(firefoxOptions, null);
+                } else {
+                    LOG.info("Setting up FirefoxDriver");
+                    String firefoxLogFilePath = System.getProperty("user.dir") + File.separator + "logs" + File.separator
+                            + "firefox.log";
+                    DriverService.Builder<GeckoDriverService, GeckoDriverService.Builder> builder = new GeckoDriverService.Builder()
+                            .withLogFile(new File(firefoxLogFilePath));
+                    GeckoDriverService service = builder.build();
+                    driver = new FirefoxDriver(service, firefoxOptions);
+                    driverService = service;
+                    LOG.info("FirefoxDriver initialized");
+                }
+            }
+            case DriverConfig.HTTP_BROWSER -> {
+                LOG.info("Setting up HttpDriver");
+                driver = new HttpDriver();
+                LOG.info("HttpDriver initialized");
             }
             default -> {
-                LOG.error("Unsupported browser: " + DRIVER_CONFIG.getBrowser());
-                throw new IllegalArgumentException("Unsupported browser: " + DRIVER_CONFIG.getBrowser());
+                LOG.error("Unsupported browser: {}", browser);
+                throw new IllegalArgumentException("Unsupported browser: " + browser);
             }
         }
 
+        if (DRIVER_CONFIG.getInstrumentationEnabled()) {
+            driver = new EventFiringDecorator<WebDriver>(new CommandTimingListener()).decorate(driver);
+            LOG.info("WebDriver commands are instrumented");
+        }
+
+        mainWindow = driver.getWindowHandle();
         driver.manage().window().maximize();
-        driver.manage().timeouts().implicitlyWait(DRIVER_CONFIG.getImplicitWaitTime());
-        wait = new FluentWait<>(driver)
-                .withTimeout(DRIVER_CONFIG.getTimeout())
-                .pollingEvery(DRIVER_CONFIG.getPollingTime())
-                .ignoring(NoSuchElementException.class)
-                .ignoring(NotFoundException.class)
-                .ignoring(StaleElementReferenceException.class);
+        if (MUTATION_WAIT_STRATEGY.equals(DRIVER_CONFIG.getWaitStrategy())) {
+            driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+            wait = new DomReadyWait(driver, DRIVER_CONFIG.getTimeout(), DRIVER_CONFIG.getPollingTime());
+        } else {
+            driver.manage().timeouts().implicitlyWait(DRIVER_CONFIG.getImplicitWaitTime());
+            wait = new FluentWait<>(driver)
+                    .withTimeout(DRIVER_CONFIG.getTimeout())
+                    .pollingEvery(DRIVER_CONFIG.getPollingTime())
+                    .ignoring(NoSuchElementException.class)
+                    .ignoring(NotFoundException.class)
+                    .ignoring(StaleElementReferenceException.class);
+        }
 
+        if (driverService != null) {
+            ProcessMonitor.getInstance().register(this, driverService.getUrl().getPort());
+        }
         LOG.info("WebDriver initialized and configured");
     }
 
+    /**
+     * Makes a Chromium browser keep every console message, so failure artifacts include the full console log
+     * rather than only its errors. Does nothing when artifact capture is off.
+     *
+     * @param options         the browser options
+     * @param loggingPrefsKey the capability holding the logging preferences of the browser
+     */
+    private static void collectConsoleLogs(MutableCapabilities options, String loggingPrefsKey) {
+        if ("off".equals(DRIVER_CONFIG.getArtifactCapture())) {
+            return;
+        }
+        LoggingPreferences loggingPreferences = new LoggingPreferences();
+        loggingPreferences.enable(LogType.BROWSER, Level.ALL);
+        options.setCapability(loggingPrefsKey, loggingPreferences);
+    }
+
+    /**
+     * Starts a session on the Selenium Grid through the {@link GridDispatcher}.
+     * Chromium sessions are augmented with DevTools access when resources have to be blocked.
+     *
+     * @param capabilities    the browser options
+     * @param resourceBlocker the blocker to apply through DevTools, or null if the browser does not support it
+     * @return the remote session
+     */
+    private WebDriver startRemote(Capabilities capabilities, ResourceBlocker resourceBlocker) {
+        LOG.info("Requesting remote {} session", browser);
+        WebDriver remoteDriver = GridDispatcher.getInstance().createSession(capabilities);
+        if (resourceBlocker != null && resourceBlocker.isEnabled()) {
+            remoteDriver = new Augmenter().augment(remoteDriver);
+            if (remoteDriver instanceof HasCdp cdpDriver) {
+                resourceBlocker.applyTo(cdpDriver);
+            } else {
+                LOG.warn("Remote {} session has no DevTools access, resources are not blocked", browser);
+            }
+        }
+        LOG.info("Remote {} session initialized", browser);
+        return remoteDriver;
+    }
+
+    /**
+     * Returns the browser of the session.
+     *
+     * @return the browser name
+     */
+    public String getBrowser() {
+        return browser;
+    }
+
     /**
      * Returns the WebDriver instance.
      *
@@ -158,15 +266,106 @@ public class DriverManager {
         return wait;
     }
 
+    /**
+     * Returns whether the WebDriver session is still open.
+     *
+     * @return true if the session has not been quit, false otherwise
+     */
+    public boolean isActive() {
+        return driver != null;
+    }
+
+    /**
+     * Returns whether the session can be handed to another scenario.
+     *
+     * @return false once the session has been marked unhealthy, true otherwise
+     */
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    /**
+     * Marks the session as unhealthy, for example after it failed on the infrastructure,
+     * so that it is quit instead of reused when it is released.
+     */
+    public void markUnhealthy() {
+        healthy = false;
+    }
+
+    /**
+     * Returns how many scenarios have finished on this session.
+     *
+     * @return the number of finished scenarios
+     */
+    public int getScenarioCount() {
+        return scenarioCount;
+    }
+
+    /**
+     * Resets the browser so the next scenario starts from a clean state without relaunching it.
+     * Every window other than the one the session started with is closed, storage and cookies of the current
+     * site are cleared and the remaining window is left on a blank page. If a scenario closed the original window,
+     * the current window is kept instead and becomes the main window of the following resets.
+     *
+     * @throws WebDriverException if the session no longer responds
+     */
+    public void resetSession() {
+        LOG.info("Resetting WebDriver session");
+        scenarioCount++;
+        Set<String> handles = driver.getWindowHandles();
+        if (!handles.contains(mainWindow)) {
+            mainWindow = currentWindow(handles);
+            LOG.info("Original window was closed, keeping window {}", mainWindow);
+        }
+        for (String handle : handles) {
+            if (!handle.equals(mainWindow)) {
+                driver.switchTo().window(handle);
+                driver.close();
+            }
+        }
+        driver.switchTo().window(mainWindow);
+        if (driver instanceof JavascriptExecutor executor) {
+            try {
+                executor.executeScript(CLEAR_STORAGE_SCRIPT);
+            } catch (JavascriptException | UnsupportedCommandException e) {
+                LOG.debug("Skipping storage cleanup: {}", e.getMessage());
+            }
+        }
+        driver.manage().deleteAllCookies();
+        driver.navigate().to(BLANK_PAGE);
+        LOG.info("WebDriver session reset after {} scenarios", scenarioCount);
+    }
+
+    /**
+     * Returns the window the session is switched to, or any open window if that one was closed.
+     *
+     * @param handles the handles of the open windows
+     * @return the handle of the window to keep
+     */
+    private String currentWindow(Set<String> handles) {
+        try {
+            String current = driver.getWindowHandle();
+            if (handles.contains(current)) {
+                return current;
+            }
+        } catch (NoSuchWindowException e) {
+            LOG.debug("Current window was closed: {}", e.getMessage());
+        }
+        return handles.iterator().next();
+    }
+
     /**
      * Quits the WebDriver instance.
      */
     public void quitWebDriver() {
+        if (driverService != null) {
+            ProcessMonitor.getInstance().unregister(this);
+        }
         try {
             LOG.info("Closing WebDriver");
             driver.quit();
         } catch (Exception e) {
-            LOG.error("Failed to close WebDriver: " + e.getMessage());
+            LOG.error("Failed to close WebDriver: {}", e.getMessage());
         }
         driver = null;
     }
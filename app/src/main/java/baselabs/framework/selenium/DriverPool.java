@@ -0,0 +1,264 @@
+package baselabs.framework.selenium;
+
+import baselabs.utils.LoggerManager;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of WebDriver sessions of one browser, leased to worker threads.
+ * There is one pool per browser, and {@link #getInstance()} returns the pool of the calling thread's browser.
+ * Each thread owns at most one DriverManager per pool at a time, and the number of live sessions of each
+ * browser is bounded by the configured pool size.
+ */
+public final class DriverPool {
+    private static final LoggerManager LOG = LoggerManager.getInstance();
+    private static final long IDLE_POLL_MILLIS = 250;
+    private static final Map<String, DriverPool> POOLS = new ConcurrentHashMap<>();
+    private final String browser;
+    private final Semaphore permits;
+    private final Duration leaseTimeout;
+    private final int sessionMaxScenarios;
+    private final BlockingDeque<DriverManager> idleDrivers = new LinkedBlockingDeque<>();
+    private final Set<DriverManager> liveDrivers = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<DriverManager> leases = new ThreadLocal<>();
+    private final AtomicInteger inFlightWarmups = new AtomicInteger();
+    private final AtomicInteger unclaimedWarmups = new AtomicInteger();
+
+    /**
+     * Private constructor to initialize the DriverPool of a browser with the configured bounds.
+     *
+     * @param browser the browser of the sessions in the pool
+     */
+    private DriverPool(String browser) {
+        this.browser = browser;
+        DriverConfig driverConfig = DriverConfig.getInstance();
+        int maxSize = DriverConfig.HTTP_BROWSER.equals(browser) ? driverConfig.getHttpPoolMaxSize() : driverConfig.getPoolMaxSize();
+        this.permits = new Semaphore(maxSize, true);
+        this.leaseTimeout = driverConfig.getPoolLeaseTimeout();
+        this.sessionMaxScenarios = driverConfig.getSessionMaxScenarios();
+        LOG.info("Initialized {} driver pool with max size: {}", browser, maxSize);
+    }
+
+    /**
+     * Returns the DriverPool of the calling thread's browser.
+     *
+     * @return the DriverPool of the current browser
+     */
+    public static DriverPool getInstance() {
+        return POOLS.computeIfAbsent(DriverConfig.getInstance().getBrowser(), DriverPool::new);
+    }
+
+    /**
+     * Returns the DriverManager leased by the calling thread, leasing one first if needed.
+     * Idle sessions are reused before new ones are started; an idle session that was marked unhealthy
+     * meanwhile is relaunched instead. If a warm-up is still starting a session that no other thread has
+     * claimed, the caller waits for it instead of launching another browser; when the pool is exhausted
+     * the caller waits for another thread to release its session.
+     *
+     * @return the DriverManager owned by the calling thread
+     * @throws WebDriverException if no session becomes available within the lease timeout
+     */
+    public DriverManager lease() {
+        DriverManager current = leases.get();
+        if (current != null) {
+            if (current.isActive()) {
+                return current;
+            }
+            leases.remove();
+            discard(current);
+        }
+        long deadline = System.nanoTime() + leaseTimeout.toNanos();
+        boolean waitingForWarmup = false;
+        try {
+            while (true) {
+                DriverManager driverManager = idleDrivers.pollFirst();
+                if (driverManager == null && !waitingForWarmup) {
+                    waitingForWarmup = claimWarmup();
+                }
+                if (waitingForWarmup && inFlightWarmups.get() == 0) {
+                    waitingForWarmup = false;
+                }
+                if (driverManager == null && !waitingForWarmup && permits.tryAcquire()) {
+                    driverManager = create();
+                }
+                if (driverManager == null) {
+                    driverManager = idleDrivers.pollFirst(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                if (driverManager != null && !driverManager.isHealthy()) {
+                    LOG.info("Relaunching idle {} WebDriver session that was marked unhealthy", browser);
+                    discard(driverManager);
+                    continue;
+                }
+                if (driverManager != null) {
+                    leases.set(driverManager);
+                    LOG.info("Leased {} WebDriver session to thread: {}", browser, Thread.currentThread().getName());
+                    return driverManager;
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new WebDriverException("Timed out waiting for a WebDriver session after " + leaseTimeout);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WebDriverException("Interrupted while waiting for a WebDriver session", e);
+        }
+    }
+
+    /**
+     * Starts up to the given number of sessions in the background so that the first scenarios find
+     * a ready browser in the pool. Sessions are only started while the pool has free capacity.
+     *
+     * @param count the number of sessions to start
+     */
+    public void warmUp(int count) {
+        for (int index = 0; index < count && permits.tryAcquire(); index++) {
+            inFlightWarmups.incrementAndGet();
+            unclaimedWarmups.incrementAndGet();
+            Thread warmupThread = new Thread(() -> {
+                try {
+                    idleDrivers.offerLast(create());
+                    LOG.info("Warmed up {} WebDriver session", browser);
+                } catch (RuntimeException e) {
+                    LOG.error("Failed to warm up WebDriver session: {}", e.getMessage());
+                } finally {
+                    inFlightWarmups.decrementAndGet();
+                }
+            }, "driver-warmup-" + browser + "-" + index);
+            warmupThread.setDaemon(true);
+            warmupThread.start();
+        }
+        LOG.info("Started warm-up of {} WebDriver sessions", inFlightWarmups.get());
+    }
+
+    /**
+     * Claims one warm-up session that is still starting, if any is left unclaimed.
+     *
+     * @return true if the caller should wait for a warm-up session, false otherwise
+     */
+    private boolean claimWarmup() {
+        return unclaimedWarmups.getAndUpdate(unclaimed -> Math.max(0, unclaimed - 1)) > 0;
+    }
+
+    /**
+     * Returns the calling thread's session to the pool so another thread can reuse it.
+     * The session is reset first; it is relaunched instead when it was marked unhealthy, when the reset
+     * fails or when it has reached the configured number of scenarios.
+     */
+    public void release() {
+        DriverManager driverManager = leases.get();
+        leases.remove();
+        if (driverManager == null) {
+            return;
+        }
+        if (driverManager.isActive() && driverManager.isHealthy() && recycle(driverManager)) {
+            idleDrivers.offerFirst(driverManager);
+            LOG.info("Released WebDriver session from thread: {}", Thread.currentThread().getName());
+        } else {
+            discard(driverManager);
+        }
+    }
+
+    /**
+     * Returns the session leased by the calling thread without leasing one, for code that only inspects
+     * a session that may not have been started, such as the hooks that run after a failed scenario.
+     *
+     * @return the leased DriverManager, or null if the thread holds no open session
+     */
+    public DriverManager getLeased() {
+        DriverManager driverManager = leases.get();
+        return driverManager != null && driverManager.isActive() ? driverManager : null;
+    }
+
+    /**
+     * Marks the session leased by the calling thread as unhealthy so it is relaunched when released.
+     * Does nothing if the thread holds no session.
+     */
+    public void markUnhealthy() {
+        DriverManager driverManager = leases.get();
+        if (driverManager != null) {
+            driverManager.markUnhealthy();
+            LOG.warn("{} WebDriver session of thread {} marked unhealthy", browser, Thread.currentThread().getName());
+        }
+    }
+
+    /**
+     * Resets a released session so it can be reused.
+     *
+     * @param driverManager the released session
+     * @return true if the session can be reused, false if it has to be relaunched
+     */
+    private boolean recycle(DriverManager driverManager) {
+        try {
+            driverManager.resetSession();
+        } catch (WebDriverException e) {
+            LOG.warn("WebDriver session is unhealthy and will be relaunched: {}", e.getMessage());
+            return false;
+        }
+        if (sessionMaxScenarios > 0 && driverManager.getScenarioCount() >= sessionMaxScenarios) {
+            LOG.info("WebDriver session reached {} scenarios and will be relaunched", sessionMaxScenarios);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Quits every session of every browser pool of the JVM, including the {@code http} pool that scenarios
+     * tagged {@code @HttpDriver} use alongside the browser of the run.
+     */
+    public static void shutdownAll() {
+        for (DriverPool pool : POOLS.values()) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Quits every session owned by the pool.
+     */
+    public void shutdown() {
+        LOG.info("Shutting down {} driver pool", browser);
+        idleDrivers.clear();
+        for (DriverManager driverManager : liveDrivers) {
+            discard(driverManager);
+        }
+        leases.remove();
+    }
+
+    /**
+     * Starts a new session; the caller must already hold a pool permit.
+     *
+     * @return the new DriverManager
+     */
+    private DriverManager create() {
+        try {
+            DriverManager driverManager = new DriverManager(browser);
+            liveDrivers.add(driverManager);
+            return driverManager;
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Quits the given session and frees its pool permit.
+     *
+     * @param driverManager the session to discard
+     */
+    private void discard(DriverManager driverManager) {
+        if (liveDrivers.remove(driverManager)) {
+            if (driverManager.isActive()) {
+                driverManager.quitWebDriver();
+            }
+            permits.release();
+        }
+    }
+}
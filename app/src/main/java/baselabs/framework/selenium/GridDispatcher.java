@@ -0,0 +1,240 @@
+package baselabs.framework.selenium;
+
+import baselabs.framework.metrics.MetricsRegistry;
+import baselabs.utils.LoggerManager;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Singleton dispatching remote WebDriver session requests to a Selenium Grid (or standalone server).
+ * Requests are queued per browser in arrival order, so a browser without free slots does not hold up the
+ * requests of the others, and only the head of each queue polls the grid {@code /status} endpoint; it is
+ * sent once a node reports a free slot for its browser, counting the sessions this JVM is still creating.
+ * Session creation failures are retried with an exponential backoff. The time each request spends queued
+ * is recorded in the {@link MetricsRegistry#GRID_QUEUE} histograms, and retries and failures in the
+ * {@code gridSessionRetries.<browser>} and {@code gridSessionFailures.<browser>} counters.
+ */
+public final class GridDispatcher {
+    private static final LoggerManager LOG = LoggerManager.getInstance();
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+    private static final int UNKNOWN_CAPACITY = -1;
+    private static final int MAX_BACKOFF_SHIFT = 6;
+    private static final String NODE_UP = "UP";
+    private final URL hubUrl;
+    private final URI statusUri;
+    private final HttpClient httpClient;
+    private final Duration queueTimeout;
+    private final Duration statusInterval;
+    private final int sessionRetries;
+    private final Duration retryBackoff;
+    private final Map<String, Semaphore> queueHeads = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> pendingSessions = new ConcurrentHashMap<>();
+
+    /**
+     * Lazily creates the singleton the first time it is requested; class initialization makes this thread-safe.
+     */
+    private static final class Holder {
+        private static final GridDispatcher INSTANCE = new GridDispatcher(DriverConfig.getInstance());
+    }
+
+    /**
+     * Private constructor to initialize the dispatcher with the remote settings of the configuration.
+     *
+     * @param driverConfig the WebDriver configuration
+     */
+    private GridDispatcher(DriverConfig driverConfig) {
+        this.hubUrl = driverConfig.getRemoteUrl();
+        this.statusUri = URI.create(hubUrl.toString().replaceAll("/+$", "") + "/status");
+        this.queueTimeout = driverConfig.getPoolLeaseTimeout();
+        this.statusInterval = driverConfig.getRemoteStatusInterval();
+        this.sessionRetries = driverConfig.getRemoteSessionRetries();
+        this.retryBackoff = driverConfig.getRemoteRetryBackoff();
+        this.httpClient = HttpClient.newBuilder().connectTimeout(statusInterval.plusSeconds(1)).build();
+        LOG.info("Dispatching remote WebDriver sessions to: {}", hubUrl);
+    }
+
+    /**
+     * Returns the singleton instance of GridDispatcher.
+     *
+     * @return the singleton instance of GridDispatcher
+     */
+    public static GridDispatcher getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Waits for a free grid slot for the browser of the capabilities and starts a session on it.
+     *
+     * @param capabilities the capabilities of the session
+     * @return the remote session
+     * @throws WebDriverException if no slot frees up within the pool lease timeout, or the session cannot be
+     *                            created after the configured retries
+     */
+    public RemoteWebDriver createSession(Capabilities capabilities) {
+        String browserName = capabilities.getBrowserName();
+        AtomicInteger pending = pendingSessions.computeIfAbsent(browserName, key -> new AtomicInteger());
+        long queuedAt = System.nanoTime();
+        reserveSlot(browserName, pending);
+        METRICS.record(MetricsRegistry.GRID_QUEUE, browserName, System.nanoTime() - queuedAt);
+        try {
+            return startSession(browserName, capabilities);
+        } finally {
+            pending.decrementAndGet();
+        }
+    }
+
+    /**
+     * Waits until the calling thread is at the head of the queue of its browser and the grid has a slot for the browser
+     * that is not already claimed by a session this JVM is creating, then claims it.
+     *
+     * @param browserName the browser name reported by the grid
+     * @param pending     the number of sessions of the browser this JVM is creating
+     * @throws WebDriverException if no slot frees up within the pool lease timeout
+     */
+    private void reserveSlot(String browserName, AtomicInteger pending) {
+        long deadline = System.nanoTime() + queueTimeout.toNanos();
+        Semaphore queueHead = queueHeads.computeIfAbsent(browserName, key -> new Semaphore(1, true));
+        try {
+            if (!queueHead.tryAcquire(queueTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new WebDriverException("Timed out queueing for a " + browserName + " grid slot after " + queueTimeout);
+            }
+            try {
+                boolean logged = false;
+                while (true) {
+                    int freeSlots = getFreeSlots(browserName);
+                    if (freeSlots == UNKNOWN_CAPACITY || freeSlots > pending.get()) {
+                        pending.incrementAndGet();
+                        return;
+                    }
+                    if (System.nanoTime() > deadline) {
+                        throw new WebDriverException("Timed out waiting for a free " + browserName + " grid slot after " + queueTimeout);
+                    }
+                    if (!logged) {
+                        LOG.info("No free {} slot on the grid, {} more {} requests queued", browserName, queueHead.getQueueLength(), browserName);
+                        logged = true;
+                    }
+                    Thread.sleep(statusInterval.toMillis());
+                }
+            } finally {
+                queueHead.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WebDriverException("Interrupted while waiting for a grid slot", e);
+        }
+    }
+
+    /**
+     * Counts the free slots of a browser reported by the grid status endpoint.
+     *
+     * @param browserName the browser name reported by the grid
+     * @return the number of free slots, or -1 if the grid status cannot be read
+     * @throws InterruptedException if interrupted while reading the status
+     */
+    private int getFreeSlots(String browserName) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(statusUri).timeout(statusInterval.plusSeconds(1)).GET().build();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            return countFreeSlots(new Json().toType(response.body(), Json.MAP_TYPE), browserName);
+        } catch (IOException | JsonException e) {
+            LOG.warn("Unable to read grid status from {}, sending the request without capacity check: {}", statusUri, e.getMessage());
+            return UNKNOWN_CAPACITY;
+        }
+    }
+
+    /**
+     * Counts the free slots of a browser in a grid status response. A node contributes the free slots whose
+     * stereotype matches the browser, bounded by how many more sessions its {@code maxSessions} allows.
+     *
+     * @param status      the parsed status response
+     * @param browserName the browser name reported by the grid
+     * @return the number of free slots, or -1 if the response does not list the nodes
+     */
+    private static int countFreeSlots(Map<String, Object> status, String browserName) {
+        if (!(status.get("value") instanceof Map<?, ?> value) || !(value.get("nodes") instanceof List<?> nodes)) {
+            return UNKNOWN_CAPACITY;
+        }
+        int freeSlots = 0;
+        for (Object node : nodes) {
+            if (!(node instanceof Map<?, ?> nodeStatus) || !NODE_UP.equals(nodeStatus.get("availability"))
+                    || !(nodeStatus.get("slots") instanceof List<?> slots)) {
+                continue;
+            }
+            int busy = 0;
+            int matching = 0;
+            for (Object slot : slots) {
+                if (!(slot instanceof Map<?, ?> slotStatus)) {
+                    continue;
+                }
+                if (slotStatus.get("session") != null) {
+                    busy++;
+                } else if (slotStatus.get("stereotype") instanceof Map<?, ?> stereotype
+                        && browserName.equalsIgnoreCase(String.valueOf(stereotype.get("browserName")))) {
+                    matching++;
+                }
+            }
+            int maxSessions = nodeStatus.get("maxSessions") instanceof Number number ? number.intValue() : slots.size();
+            freeSlots += Math.max(0, Math.min(matching, maxSessions - busy));
+        }
+        return freeSlots;
+    }
+
+    /**
+     * Starts a remote session, retrying with an exponential backoff when the grid fails to create it.
+     *
+     * @param browserName  the browser name reported by the grid
+     * @param capabilities the capabilities of the session
+     * @return the remote session
+     * @throws WebDriverException if the session cannot be created after the configured retries
+     */
+    private RemoteWebDriver startSession(String browserName, Capabilities capabilities) {
+        for (int attempt = 0; true; attempt++) {
+            try {
+                RemoteWebDriver remoteDriver = new RemoteWebDriver(hubUrl, capabilities);
+                LOG.info("Started remote {} session: {}", browserName, remoteDriver.getSessionId());
+                return remoteDriver;
+            } catch (WebDriverException e) {
+                if (attempt >= sessionRetries) {
+                    METRICS.increment("gridSessionFailures." + browserName);
+                    LOG.error("Failed to create remote {} session after {} attempts: {}", browserName, attempt + 1, e.getMessage());
+                    throw e;
+                }
+                METRICS.increment("gridSessionRetries." + browserName);
+                Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempt, MAX_BACKOFF_SHIFT));
+                LOG.warn("Failed to create remote {} session, retrying in {} ms: {}", browserName, backoff.toMillis(), e.getMessage());
+                sleep(backoff);
+            }
+        }
+    }
+
+    /**
+     * Sleeps for the given time.
+     *
+     * @param duration the time to sleep
+     */
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WebDriverException("Interrupted while waiting to retry session creation", e);
+        }
+    }
+}
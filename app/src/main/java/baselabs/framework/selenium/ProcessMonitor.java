@@ -0,0 +1,263 @@
+package baselabs.framework.selenium;
+
+import baselabs.framework.metrics.MetricsRegistry;
+import baselabs.utils.LoggerManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Singleton sampling the resident memory and CPU usage of the processes of local browser sessions: the driver
+ * service (chromedriver, msedgedriver or geckodriver) and every browser process started under it, read from
+ * {@code /proc} on Linux. Each sampling pass is exported per browser as the {@code processRssMb.<browser>.total}
+ * and {@code processRssMb.<browser>.max} gauges (the sum over its sessions and the largest session) and the
+ * {@code processCpuPercent.<browser>.max} gauge, with {@code processRssMb.total} for every session of the JVM,
+ * in the metrics of that browser.
+ * A session whose processes use more than {@code webdriver.monitor.max.rss.mb} of memory, or more than
+ * {@code webdriver.monitor.max.cpu.percent} of CPU over several samples in a row, is marked unhealthy so
+ * that {@link DriverPool} relaunches it once its scenario has finished instead of handing it to the next one.
+ * Remote and HTTP sessions have no local processes and are not monitored, nor is anything on other systems.
+ */
+public final class ProcessMonitor {
+    private static final LoggerManager LOG = LoggerManager.getInstance();
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+    private static final Path PROC = Paths.get("/proc");
+    private static final long KB_PER_MB = 1024;
+    private static final int PERCENT = 100;
+    private static final int SUSTAINED_CPU_SAMPLES = 3;
+    private final Duration interval;
+    private final long maxRssKb;
+    private final int maxCpuPercent;
+    private final Map<DriverManager, Session> sessions = new ConcurrentHashMap<>();
+    private ScheduledExecutorService sampler;
+
+    /**
+     * State of a monitored session between samples.
+     */
+    private static final class Session {
+        private final String browser;
+        private final int servicePort;
+        private long servicePid = -1;
+        private long lastCpuNanos = -1;
+        private long lastSampleNanos;
+        private int cpuSamplesOverLimit;
+        private long lastCpuPercent = -1;
+
+        /**
+         * Constructor to monitor the session whose driver service listens on the given port.
+         *
+         * @param browser     the browser of the session
+         * @param servicePort the port of the driver service
+         */
+        private Session(String browser, int servicePort) {
+            this.browser = browser;
+            this.servicePort = servicePort;
+        }
+    }
+
+    /**
+     * Lazily creates the singleton the first time it is requested; class initialization makes this thread-safe.
+     */
+    private static final class Holder {
+        private static final ProcessMonitor INSTANCE = new ProcessMonitor(DriverConfig.getInstance());
+    }
+
+    /**
+     * Private constructor to read the sampling interval and the limits.
+     *
+     * @param config the WebDriver configuration
+     */
+    private ProcessMonitor(DriverConfig config) {
+        interval = config.getMonitorInterval();
+        maxRssKb = config.getMonitorMaxRssMb() * KB_PER_MB;
+        maxCpuPercent = config.getMonitorMaxCpuPercent();
+    }
+
+    /**
+     * Returns the singleton instance of ProcessMonitor.
+     *
+     * @return the singleton instance of ProcessMonitor
+     */
+    public static ProcessMonitor getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Starts monitoring a local session. The sampler thread is started with the first session; nothing is
+     * monitored when the interval is zero or {@code /proc} is not available.
+     *
+     * @param driverManager the session to monitor
+     * @param servicePort   the port its driver service listens on, which identifies the service process
+     */
+    synchronized void register(DriverManager driverManager, int servicePort) {
+        if (interval.isZero() || !Files.isDirectory(PROC.resolve("self"))) {
+            return;
+        }
+        sessions.put(driverManager, new Session(driverManager.getBrowser(), servicePort));
+        if (sampler == null) {
+            sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "process-monitor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sampler.scheduleWithFixedDelay(this::sampleAll, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+            LOG.info("Monitoring browser processes every {}, maxRssMb={}, maxCpuPercent={}", interval, maxRssKb / KB_PER_MB, maxCpuPercent);
+        }
+    }
+
+    /**
+     * Stops monitoring a session, before it is quit.
+     *
+     * @param driverManager the session
+     */
+    void unregister(DriverManager driverManager) {
+        sessions.remove(driverManager);
+    }
+
+    /**
+     * Samples every monitored session and exports the totals and maxima of the pass per browser, so the
+     * gauges do not depend on which session happened to be sampled last. Failures are logged so that one
+     * unreadable session does not stop the sampler.
+     */
+    private void sampleAll() {
+        long totalRssKb = 0;
+        Map<String, Long> rssTotals = new HashMap<>();
+        Map<String, Long> rssMaxima = new HashMap<>();
+        Map<String, Long> cpuMaxima = new HashMap<>();
+        for (Map.Entry<DriverManager, Session> entry : sessions.entrySet()) {
+            Session session = entry.getValue();
+            try {
+                long rssKb = sample(entry.getKey(), session);
+                totalRssKb += rssKb;
+                rssTotals.merge(session.browser, rssKb, Long::sum);
+                rssMaxima.merge(session.browser, rssKb, Math::max);
+                if (session.lastCpuPercent >= 0) {
+                    cpuMaxima.merge(session.browser, session.lastCpuPercent, Math::max);
+                }
+            } catch (RuntimeException e) {
+                LOG.warn("Failed to sample {} browser processes: {}", session.browser, e.getMessage());
+            }
+        }
+        rssTotals.forEach((browser, rssKb) -> METRICS.setGauge(browser, "processRssMb." + browser + ".total", rssKb / KB_PER_MB));
+        rssMaxima.forEach((browser, rssKb) -> METRICS.setGauge(browser, "processRssMb." + browser + ".max", rssKb / KB_PER_MB));
+        cpuMaxima.forEach((browser, cpuPercent) -> METRICS.setGauge(browser, "processCpuPercent." + browser + ".max", cpuPercent));
+        for (String browser : rssTotals.keySet()) {
+            METRICS.setGauge(browser, "processRssMb.total", totalRssKb / KB_PER_MB);
+        }
+    }
+
+    /**
+     * Samples the process tree of a session, keeps its CPU usage since the previous sample, and marks the
+     * session unhealthy if it exceeds a limit.
+     *
+     * @param driverManager the session
+     * @param session       the state of the session
+     * @return the resident memory of the processes in kilobytes, or zero if the service process was not found
+     */
+    private long sample(DriverManager driverManager, Session session) {
+        if (session.servicePid < 0) {
+            session.servicePid = findServicePid(session.servicePort);
+        }
+        Optional<ProcessHandle> service = session.servicePid < 0 ? Optional.empty() : ProcessHandle.of(session.servicePid);
+        if (service.isEmpty()) {
+            return 0;
+        }
+        List<ProcessHandle> tree = Stream.concat(Stream.of(service.get()), service.get().descendants()).toList();
+        long rssKb = 0;
+        long cpuNanos = 0;
+        for (ProcessHandle process : tree) {
+            rssKb += readRssKb(process.pid());
+            cpuNanos += process.info().totalCpuDuration().map(Duration::toNanos).orElse(0L);
+        }
+        long now = System.nanoTime();
+        if (session.lastCpuNanos >= 0) {
+            long cpuPercent = Math.max(0, cpuNanos - session.lastCpuNanos) * PERCENT / Math.max(1, now - session.lastSampleNanos);
+            session.lastCpuPercent = cpuPercent;
+            session.cpuSamplesOverLimit = maxCpuPercent > 0 && cpuPercent > maxCpuPercent ? session.cpuSamplesOverLimit + 1 : 0;
+        }
+        session.lastCpuNanos = cpuNanos;
+        session.lastSampleNanos = now;
+        if (maxRssKb > 0 && rssKb > maxRssKb) {
+            recycle(driverManager, session, rssKb / KB_PER_MB + " MB of memory in " + tree.size() + " processes");
+        } else if (session.cpuSamplesOverLimit >= SUSTAINED_CPU_SAMPLES) {
+            recycle(driverManager, session, "over " + maxCpuPercent + "% CPU for " + SUSTAINED_CPU_SAMPLES + " samples");
+        }
+        return rssKb;
+    }
+
+    /**
+     * Marks a session unhealthy so it is relaunched when its scenario releases it, and stops monitoring it.
+     *
+     * @param driverManager the session
+     * @param session       the state of the session
+     * @param reason        the limit the session exceeded
+     */
+    private void recycle(DriverManager driverManager, Session session, String reason) {
+        sessions.remove(driverManager);
+        driverManager.markUnhealthy();
+        METRICS.increment(session.browser, "processRecycles." + session.browser);
+        LOG.warn("{} WebDriver session uses {} and will be relaunched after its scenario", session.browser, reason);
+    }
+
+    /**
+     * Finds the driver service among the child processes of this JVM by the port on its command line.
+     *
+     * @param servicePort the port of the driver service
+     * @return the process ID, or -1 if no child process listens on the port
+     */
+    private static long findServicePid(int servicePort) {
+        String portArgument = "--port=" + servicePort;
+        return ProcessHandle.current().children()
+                .filter(child -> Arrays.asList(readCommandLine(child.pid())).contains(portArgument))
+                .mapToLong(ProcessHandle::pid)
+                .findFirst()
+                .orElse(-1);
+    }
+
+    /**
+     * Reads the arguments of a process from {@code /proc/<pid>/cmdline}.
+     *
+     * @param pid the process ID
+     * @return the arguments, empty if the process has exited
+     */
+    private static String[] readCommandLine(long pid) {
+        try {
+            return new String(Files.readAllBytes(PROC.resolve(pid + "/cmdline")), StandardCharsets.UTF_8).split("\0");
+        } catch (IOException e) {
+            return new String[0];
+        }
+    }
+
+    /**
+     * Reads the resident memory of a process from the VmRSS line of {@code /proc/<pid>/status}.
+     *
+     * @param pid the process ID
+     * @return the resident memory in kilobytes, zero if the process has exited
+     */
+    private static long readRssKb(long pid) {
+        try {
+            for (String line : Files.readAllLines(PROC.resolve(pid + "/status"), StandardCharsets.UTF_8)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException e) {
+            LOG.debug("Process {} exited before it was sampled", pid);
+        }
+        return 0;
+    }
+}
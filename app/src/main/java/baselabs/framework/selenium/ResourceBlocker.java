@@ -0,0 +1,103 @@
+package baselabs.framework.selenium;
+
+import baselabs.utils.LoggerManager;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.firefox.FirefoxOptions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Blocks the resource types and URL patterns configured in webdriver.properties so pages only load
+ * what the page objects assert on. Chrome and Edge block requests through the CDP
+ * {@code Network.setBlockedURLs} command, also on remote sessions, matching each file extension with and without
+ * a query string; Firefox can only disable images and web fonts through preferences.
+ */
+public class ResourceBlocker {
+    private static final LoggerManager LOG = LoggerManager.getInstance();
+    private static final int BLOCK_IMAGES = 2;
+    private static final Map<String, List<String>> RESOURCE_EXTENSIONS = Map.of(
+            "images", List.of("png", "jpg", "jpeg", "gif", "svg", "webp", "ico"),
+            "fonts", List.of("woff", "woff2", "ttf", "otf", "eot"),
+            "stylesheets", List.of("css"),
+            "media", List.of("mp4", "webm", "ogg", "mp3"));
+    private final List<String> resources;
+    private final List<String> urlPatterns;
+
+    /**
+     * Constructor to initialize the blocker with the configured resource types and URL patterns.
+     *
+     * @param resources   the resource types to block (images, fonts, stylesheets, media)
+     * @param urlPatterns additional URL patterns to block, with {@code *} wildcards
+     */
+    public ResourceBlocker(List<String> resources, List<String> urlPatterns) {
+        this.resources = List.copyOf(resources);
+        this.urlPatterns = List.copyOf(urlPatterns);
+        for (String resource : resources) {
+            if (!RESOURCE_EXTENSIONS.containsKey(resource)) {
+                throw new IllegalArgumentException("Unsupported blocked resource type: " + resource);
+            }
+        }
+    }
+
+    /**
+     * Returns whether anything is configured to be blocked.
+     *
+     * @return true if at least one resource type or URL pattern is blocked, false otherwise
+     */
+    public boolean isEnabled() {
+        return !resources.isEmpty() || !urlPatterns.isEmpty();
+    }
+
+    /**
+     * Returns every URL pattern to block, including the patterns of the blocked resource types: each of their
+     * file extensions at the end of the URL or followed by a query string, as in {@code *.css} and {@code *.css?*}.
+     *
+     * @return the URL patterns
+     */
+    public List<String> getBlockedUrlPatterns() {
+        List<String> patterns = new ArrayList<>();
+        for (String resource : resources) {
+            for (String extension : RESOURCE_EXTENSIONS.get(resource)) {
+                patterns.add("*." + extension);
+                patterns.add("*." + extension + "?*");
+            }
+        }
+        patterns.addAll(urlPatterns);
+        return patterns;
+    }
+
+    /**
+     * Starts blocking the configured URLs in a Chrome or Edge session, local or remote.
+     *
+     * @param driver the Chromium based driver
+     */
+    public void applyTo(HasCdp driver) {
+        if (!isEnabled()) {
+            return;
+        }
+        List<String> patterns = getBlockedUrlPatterns();
+        driver.executeCdpCommand("Network.enable", Collections.emptyMap());
+        driver.executeCdpCommand("Network.setBlockedURLs", Map.<String, Object>of("urls", patterns));
+        LOG.info("Blocking URL patterns: {}", patterns);
+    }
+
+    /**
+     * Adds the Firefox preferences that disable the configured resource types.
+     *
+     * @param firefoxOptions the Firefox options
+     */
+    public void applyTo(FirefoxOptions firefoxOptions) {
+        if (resources.contains("images")) {
+            firefoxOptions.addPreference("permissions.default.image", BLOCK_IMAGES);
+        }
+        if (resources.contains("fonts")) {
+            firefoxOptions.addPreference("browser.display.use_document_fonts", 0);
+        }
+        if (resources.contains("stylesheets") || resources.contains("media") || !urlPatterns.isEmpty()) {
+            LOG.warn("Firefox cannot block stylesheets, media or URL patterns, only images and fonts are blocked");
+        }
+    }
+}
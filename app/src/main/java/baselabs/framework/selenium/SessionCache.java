@@ -0,0 +1,115 @@
+package baselabs.framework.selenium;
+
+import baselabs.framework.Credentials;
+import baselabs.utils.LoggerManager;
+import org.openqa.selenium.Cookie;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Singleton cache of authenticated browser sessions.
+ * Session cookies are stored per environment and user role, together with the account that logged in,
+ * so that a role only has to log in through the UI once per run. A cached session may only be restored by
+ * a thread that has leased that same account, so no other scenario can log it out while it is in use.
+ */
+public final class SessionCache {
+    private static final LoggerManager LOG = LoggerManager.getInstance();
+    private static SessionCache instance;
+    private final Map<String, CachedSession> sessions = new ConcurrentHashMap<>();
+    private final ThreadLocal<Boolean> enabled = ThreadLocal.withInitial(() -> Boolean.TRUE);
+
+    /**
+     * Session of an account that logged in.
+     *
+     * @param credentials the account the session belongs to
+     * @param cookies     the session cookies
+     */
+    public record CachedSession(Credentials credentials, Set<Cookie> cookies) {
+    }
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private SessionCache() {
+    }
+
+    /**
+     * Returns the singleton instance of SessionCache.
+     *
+     * @return the singleton instance of SessionCache
+     */
+    public static synchronized SessionCache getInstance() {
+        if (instance == null) {
+            instance = new SessionCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Returns whether the cache is used by the scenario running on the calling thread.
+     *
+     * @return true if cached sessions may be used, false otherwise
+     */
+    public boolean isEnabled() {
+        return enabled.get();
+    }
+
+    /**
+     * Enables or disables the cache for the scenario running on the calling thread.
+     *
+     * @param useCache true to use cached sessions, false to always log in through the UI
+     */
+    public void setEnabled(boolean useCache) {
+        enabled.set(useCache);
+    }
+
+    /**
+     * Returns the cached session for the given environment and user role.
+     *
+     * @param envId    the environment ID
+     * @param userRole the user role
+     * @return the session and the account it belongs to, or null if no session is cached
+     */
+    public CachedSession get(String envId, String userRole) {
+        CachedSession session = sessions.get(key(envId, userRole));
+        LOG.info("Cached session for role: {} --> {}", userRole, session == null ? "miss" : "hit");
+        return session;
+    }
+
+    /**
+     * Stores the session cookies of an account of a user role that has just logged in.
+     *
+     * @param envId       the environment ID
+     * @param userRole    the user role
+     * @param credentials the account that logged in
+     * @param cookies     the session cookies
+     */
+    public void put(String envId, String userRole, Credentials credentials, Set<Cookie> cookies) {
+        sessions.put(key(envId, userRole), new CachedSession(credentials, Set.copyOf(cookies)));
+        LOG.info("Cached session for role: {} of account: {}", userRole, credentials.username());
+    }
+
+    /**
+     * Removes a cached session that is no longer accepted by the application or has been logged out.
+     *
+     * @param envId    the environment ID
+     * @param userRole the user role
+     */
+    public void invalidate(String envId, String userRole) {
+        sessions.remove(key(envId, userRole));
+        LOG.info("Invalidated cached session for role: {}", userRole);
+    }
+
+    /**
+     * Builds the cache key for the given environment and user role.
+     *
+     * @param envId    the environment ID
+     * @param userRole the user role
+     * @return the cache key
+     */
+    private static String key(String envId, String userRole) {
+        return envId + "." + userRole;
+    }
+}
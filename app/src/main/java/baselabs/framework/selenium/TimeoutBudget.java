@@ -0,0 +1,95 @@
+package baselabs.framework.selenium;
+
+import baselabs.utils.LoggerManager;
+
+import java.time.Duration;
+
+/**
+ * Singleton time budget shared by all the waits of the scenario running on the calling thread.
+ * The budget only counts the time the scenario actually spends waiting, charged by each wait once it returns,
+ * not the time spent in clicks, navigation or hooks. Each wait is capped at what is left of the budget, so a
+ * scenario that keeps missing elements fails once the budget is spent instead of paying the full wait timeout
+ * on every miss.
+ */
+public final class TimeoutBudget {
+    private static final LoggerManager LOG = LoggerManager.getInstance();
+    private static TimeoutBudget instance;
+    private final ThreadLocal<Long> remainingNanos = new ThreadLocal<>();
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private TimeoutBudget() {
+    }
+
+    /**
+     * Returns the singleton instance of TimeoutBudget.
+     *
+     * @return the singleton instance of TimeoutBudget
+     */
+    public static synchronized TimeoutBudget getInstance() {
+        if (instance == null) {
+            instance = new TimeoutBudget();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts the budget of the scenario running on the calling thread.
+     *
+     * @param budget the total time the waits of the scenario may take; zero disables the budget
+     */
+    public void start(Duration budget) {
+        if (budget.isZero()) {
+            remainingNanos.remove();
+        } else {
+            remainingNanos.set(budget.toNanos());
+        }
+    }
+
+    /**
+     * Ends the budget of the scenario running on the calling thread.
+     */
+    public void clear() {
+        remainingNanos.remove();
+    }
+
+    /**
+     * Charges the time a wait of the scenario running on the calling thread took to its budget.
+     *
+     * @param waited how long the wait took
+     */
+    public void spend(Duration waited) {
+        Long left = remainingNanos.get();
+        if (left != null) {
+            remainingNanos.set(Math.max(0, left - waited.toNanos()));
+        }
+    }
+
+    /**
+     * Returns what is left of the budget of the calling thread.
+     *
+     * @return the remaining time, zero once the budget is spent, or null if no budget is running
+     */
+    public Duration remaining() {
+        Long left = remainingNanos.get();
+        return left == null ? null : Duration.ofNanos(left);
+    }
+
+    /**
+     * Caps a wait timeout at what is left of the budget of the calling thread.
+     *
+     * @param timeout the timeout the wait asks for
+     * @return the timeout, or the remaining budget if that is shorter
+     */
+    public Duration clamp(Duration timeout) {
+        Duration remaining = remaining();
+        if (remaining == null || remaining.compareTo(timeout) >= 0) {
+            return timeout;
+        }
+        if (remaining.isZero()) {
+            LOG.warn("Scenario timeout budget is spent, evaluating wait condition once");
+        }
+        return remaining;
+    }
+}
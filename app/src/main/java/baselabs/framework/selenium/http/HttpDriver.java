@@ -0,0 +1,607 @@
+package baselabs.framework.selenium.http;
+
+import baselabs.utils.LoggerManager;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.jsoup.select.Selector;
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.By;
+import org.openqa.selenium.InvalidSelectorException;
+import org.openqa.selenium.NoAlertPresentException;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchFrameException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WindowType;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.function.Predicate;
+
+/**
+ * WebDriver that fetches pages with an HTTP client and parses them in-process, without a browser.
+ * It supports the id, CSS, XPath, tag name and link text locators, follows links, submits forms and keeps
+ * the cookies of the session in a cookie jar. JavaScript is not executed, so it only suits pages whose
+ * content and forms work without scripts; elements found before a navigation become stale, like in a browser.
+ * Values typed into fields are kept as properties beside the document, like in a browser, so form submissions
+ * send them but the page source never includes them.
+ * A session is not thread-safe and is used by one thread at a time, like the browser sessions of the pool.
+ */
+public class HttpDriver implements WebDriver {
+    private static final LoggerManager LOG = LoggerManager.getInstance();
+    static final String WINDOW_HANDLE = "http-window";
+    private static final String BLANK_PAGE = "about:blank";
+    private static final String USER_AGENT = "Mozilla/5.0 (compatible; baselabs-http-driver)";
+    private static final String FORM_CONTENT_TYPE = "application/x-www-form-urlencoded";
+    private final CookieManager cookieManager = new CookieManager(null, CookiePolicy.ACCEPT_ALL);
+    private final HttpClient httpClient;
+    private final HttpOptions options;
+    private final List<URI> history = new ArrayList<>();
+    private final Map<Element, String> typedValues = new IdentityHashMap<>();
+    private int historyIndex = -1;
+    private Document document = Jsoup.parse("");
+    private URI currentUri = URI.create(BLANK_PAGE);
+    private int generation;
+    private boolean closed;
+
+    /**
+     * Public constructor to open a session with an empty cookie jar on a blank page.
+     */
+    public HttpDriver() {
+        this.httpClient = HttpClient.newBuilder()
+                .cookieHandler(cookieManager)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        this.options = new HttpOptions(this, cookieManager.getCookieStore());
+    }
+
+    /**
+     * Loads a page with a GET request, following redirects.
+     *
+     * @param url the absolute URL of the page, or about:blank
+     */
+    @Override
+    public void get(String url) {
+        load(URI.create(url), true);
+    }
+
+    /**
+     * Returns the URL of the current page, after redirects.
+     *
+     * @return the current URL
+     */
+    @Override
+    public String getCurrentUrl() {
+        checkOpen();
+        return currentUri.toString();
+    }
+
+    /**
+     * Returns the title of the current page.
+     *
+     * @return the page title
+     */
+    @Override
+    public String getTitle() {
+        checkOpen();
+        return document.title();
+    }
+
+    /**
+     * Finds the elements of the current page matching a locator.
+     *
+     * @param by the locator
+     * @return the matching elements, empty if none match
+     */
+    @Override
+    public List<WebElement> findElements(By by) {
+        return find(by, document);
+    }
+
+    /**
+     * Finds the first element of the current page matching a locator.
+     *
+     * @param by the locator
+     * @return the first matching element
+     */
+    @Override
+    public WebElement findElement(By by) {
+        return findFirst(by, document);
+    }
+
+    /**
+     * Returns the HTML of the current page as parsed. Like the page source of a browser, it does not include
+     * the values typed into its fields, so typed passwords do not end up in logs or failure artifacts.
+     *
+     * @return the page source
+     */
+    @Override
+    public String getPageSource() {
+        checkOpen();
+        return document.outerHtml();
+    }
+
+    /**
+     * Closes the only window of the session, which ends it.
+     */
+    @Override
+    public void close() {
+        quit();
+    }
+
+    /**
+     * Ends the session and empties its cookie jar.
+     */
+    @Override
+    public void quit() {
+        if (!closed) {
+            closed = true;
+            cookieManager.getCookieStore().removeAll();
+            LOG.debug("HTTP driver session closed on: {}", currentUri);
+        }
+    }
+
+    /**
+     * Returns the handle of the only window of the session.
+     *
+     * @return a set holding the window handle
+     */
+    @Override
+    public Set<String> getWindowHandles() {
+        checkOpen();
+        return Set.of(WINDOW_HANDLE);
+    }
+
+    /**
+     * Returns the handle of the only window of the session.
+     *
+     * @return the window handle
+     */
+    @Override
+    public String getWindowHandle() {
+        checkOpen();
+        return WINDOW_HANDLE;
+    }
+
+    /**
+     * Returns the target locator of the session.
+     *
+     * @return the target locator
+     */
+    @Override
+    public TargetLocator switchTo() {
+        checkOpen();
+        return new HttpTargetLocator();
+    }
+
+    /**
+     * Returns the navigation over the history of the session.
+     *
+     * @return the navigation
+     */
+    @Override
+    public Navigation navigate() {
+        checkOpen();
+        return new HttpNavigation();
+    }
+
+    /**
+     * Returns the options of the session: cookies, timeouts and window.
+     *
+     * @return the options
+     */
+    @Override
+    public Options manage() {
+        checkOpen();
+        return options;
+    }
+
+    /**
+     * Returns the URI of the current page.
+     *
+     * @return the current URI, about:blank before the first navigation
+     */
+    URI getCurrentUri() {
+        return currentUri;
+    }
+
+    /**
+     * Returns the number of pages loaded so far, which identifies the document elements belong to.
+     *
+     * @return the generation of the current document
+     */
+    int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns the value property of a field of the current page: the value typed into it, or else its value in the document.
+     *
+     * @param element the field
+     * @return the value of the field
+     */
+    String getValue(Element element) {
+        String typed = typedValues.get(element);
+        return typed != null ? typed : element.val();
+    }
+
+    /**
+     * Sets the value property of a field of the current page, leaving the document unchanged.
+     *
+     * @param element the field
+     * @param value   the new value
+     */
+    void setValue(Element element, String value) {
+        typedValues.put(element, value);
+    }
+
+    /**
+     * Fails if the session has been quit.
+     *
+     * @throws NoSuchSessionException if the session has been quit
+     */
+    void checkOpen() {
+        if (closed) {
+            throw new NoSuchSessionException("The HTTP driver session has been quit");
+        }
+    }
+
+    /**
+     * Finds the elements matching a locator under a context node of the current document.
+     *
+     * @param by      the locator
+     * @param context the document or element to search from
+     * @return the matching elements, in document order
+     * @throws InvalidSelectorException if the locator strategy is not supported or its value is malformed
+     */
+    List<WebElement> find(By by, Element context) {
+        checkOpen();
+        if (!(by instanceof By.Remotable remotable)) {
+            throw new InvalidSelectorException("Unsupported locator for the HTTP driver: " + by);
+        }
+        By.Remotable.Parameters parameters = remotable.getRemoteParameters();
+        String value = String.valueOf(parameters.value());
+        Elements found;
+        try {
+            found = switch (parameters.using()) {
+                case "css selector" -> context.select(value);
+                case "xpath" -> context.selectXpath(value);
+                case "tag name" -> context.getElementsByTag(value);
+                case "link text" -> matchLinks(context, link -> link.text().equals(value));
+                case "partial link text" -> matchLinks(context, link -> link.text().contains(value));
+                default -> throw new InvalidSelectorException("Unsupported locator strategy for the HTTP driver: " + parameters.using());
+            };
+        } catch (Selector.SelectorParseException e) {
+            throw new InvalidSelectorException("Invalid locator " + by + ": " + e.getMessage(), e);
+        }
+        List<WebElement> elements = new ArrayList<>(found.size());
+        for (Element element : found) {
+            if (element != context) {
+                elements.add(new HttpElement(this, element, generation));
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * Finds the first element matching a locator under a context node of the current document.
+     *
+     * @param by      the locator
+     * @param context the document or element to search from
+     * @return the first matching element
+     * @throws NoSuchElementException if no element matches
+     */
+    WebElement findFirst(By by, Element context) {
+        List<WebElement> elements = find(by, context);
+        if (elements.isEmpty()) {
+            throw new NoSuchElementException("Unable to locate element: " + by);
+        }
+        return elements.get(0);
+    }
+
+    /**
+     * Returns the links under a context node whose text matches a predicate.
+     *
+     * @param context   the document or element to search from
+     * @param predicate the predicate on the links
+     * @return the matching links
+     */
+    private static Elements matchLinks(Element context, Predicate<Element> predicate) {
+        Elements links = new Elements();
+        for (Element link : context.getElementsByTag("a")) {
+            if (predicate.test(link)) {
+                links.add(link);
+            }
+        }
+        return links;
+    }
+
+    /**
+     * Submits a form the way a browser does: the successful controls are encoded as
+     * {@code application/x-www-form-urlencoded}, sent to the form action with its method, and the response
+     * becomes the current page.
+     *
+     * @param form      the form to submit
+     * @param submitter the button that submitted the form, or null if it was submitted with the Enter key
+     */
+    void submit(Element form, Element submitter) {
+        String action = form.absUrl("action");
+        URI actionUri = action.isEmpty() ? currentUri : URI.create(action);
+        String body = encode(HttpForms.formData(form, submitter, this::getValue));
+        LOG.debug("Submitting form to: {}", actionUri);
+        if ("post".equalsIgnoreCase(form.attr("method"))) {
+            send(HttpRequest.newBuilder(actionUri)
+                    .header("Content-Type", FORM_CONTENT_TYPE)
+                    .POST(HttpRequest.BodyPublishers.ofString(body)), true);
+        } else {
+            String base = actionUri.toString().replaceAll("[?#].*$", "");
+            send(HttpRequest.newBuilder(URI.create(body.isEmpty() ? base : base + "?" + body)).GET(), true);
+        }
+    }
+
+    /**
+     * URL-encodes form fields.
+     *
+     * @param fields the names and values of the fields
+     * @return the encoded fields
+     */
+    private static String encode(List<Map.Entry<String, String>> fields) {
+        StringJoiner encoded = new StringJoiner("&");
+        for (Map.Entry<String, String> field : fields) {
+            encoded.add(URLEncoder.encode(field.getKey(), StandardCharsets.UTF_8) + "=" + URLEncoder.encode(field.getValue(), StandardCharsets.UTF_8));
+        }
+        return encoded.toString();
+    }
+
+    /**
+     * Loads a page with a GET request.
+     *
+     * @param uri          the absolute URI of the page
+     * @param addToHistory whether the page is a new history entry, false for refresh, back and forward
+     */
+    private void load(URI uri, boolean addToHistory) {
+        checkOpen();
+        if (BLANK_PAGE.equals(uri.toString())) {
+            show(Jsoup.parse(""), uri, addToHistory);
+            return;
+        }
+        if (!uri.isAbsolute()) {
+            throw new WebDriverException("The HTTP driver can only navigate to absolute URLs: " + uri);
+        }
+        send(HttpRequest.newBuilder(uri).GET(), addToHistory);
+    }
+
+    /**
+     * Sends a request and makes its response, after redirects, the current page.
+     *
+     * @param request      the request to send
+     * @param addToHistory whether the page is a new history entry
+     * @throws WebDriverException if the request fails
+     */
+    private void send(HttpRequest.Builder request, boolean addToHistory) {
+        HttpRequest httpRequest = request
+                .header("User-Agent", USER_AGENT)
+                .timeout(options.getPageLoadTimeout())
+                .build();
+        try {
+            HttpResponse<String> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
+            LOG.debug("{} {} -> {} {}", httpRequest.method(), httpRequest.uri(), response.statusCode(), response.uri());
+            show(Jsoup.parse(response.body(), response.uri().toString()), response.uri(), addToHistory);
+        } catch (IOException e) {
+            throw new WebDriverException("Failed to load " + httpRequest.uri(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WebDriverException("Interrupted while loading " + httpRequest.uri(), e);
+        }
+    }
+
+    /**
+     * Makes a document the current page, which makes the elements of the previous one stale.
+     *
+     * @param page         the parsed page
+     * @param uri          the URI of the page
+     * @param addToHistory whether the page is a new history entry
+     */
+    private void show(Document page, URI uri, boolean addToHistory) {
+        typedValues.clear();
+        document = page;
+        currentUri = uri;
+        generation++;
+        if (addToHistory) {
+            history.subList(historyIndex + 1, history.size()).clear();
+            history.add(uri);
+            historyIndex = history.size() - 1;
+        } else if (historyIndex >= 0) {
+            history.set(historyIndex, uri);
+        }
+    }
+
+    /**
+     * Navigation over the history of the session. Refresh loads the current URL again with a GET request.
+     */
+    private final class HttpNavigation implements Navigation {
+        /**
+         * Loads the previous page of the history, if any.
+         */
+        @Override
+        public void back() {
+            if (historyIndex > 0) {
+                historyIndex--;
+                load(history.get(historyIndex), false);
+            }
+        }
+
+        /**
+         * Loads the next page of the history, if any.
+         */
+        @Override
+        public void forward() {
+            if (historyIndex < history.size() - 1) {
+                historyIndex++;
+                load(history.get(historyIndex), false);
+            }
+        }
+
+        /**
+         * Loads a page with a GET request.
+         *
+         * @param url the absolute URL of the page
+         */
+        @Override
+        public void to(String url) {
+            get(url);
+        }
+
+        /**
+         * Loads a page with a GET request.
+         *
+         * @param url the URL of the page
+         */
+        @Override
+        public void to(URL url) {
+            get(url.toString());
+        }
+
+        /**
+         * Loads the current page again.
+         */
+        @Override
+        public void refresh() {
+            load(currentUri, false);
+        }
+    }
+
+    /**
+     * Target locator of a session with a single window and no frames or alerts.
+     */
+    private final class HttpTargetLocator implements TargetLocator {
+        /**
+         * Fails, as frames are not supported.
+         *
+         * @param index the frame index
+         * @return never returns
+         */
+        @Override
+        public WebDriver frame(int index) {
+            throw new NoSuchFrameException("The HTTP driver does not support frames");
+        }
+
+        /**
+         * Fails, as frames are not supported.
+         *
+         * @param nameOrId the frame name or id
+         * @return never returns
+         */
+        @Override
+        public WebDriver frame(String nameOrId) {
+            throw new NoSuchFrameException("The HTTP driver does not support frames");
+        }
+
+        /**
+         * Fails, as frames are not supported.
+         *
+         * @param frameElement the frame element
+         * @return never returns
+         */
+        @Override
+        public WebDriver frame(WebElement frameElement) {
+            throw new NoSuchFrameException("The HTTP driver does not support frames");
+        }
+
+        /**
+         * Returns the session, which has no frames.
+         *
+         * @return the session
+         */
+        @Override
+        public WebDriver parentFrame() {
+            return HttpDriver.this;
+        }
+
+        /**
+         * Switches to the only window of the session.
+         *
+         * @param nameOrHandle the window handle
+         * @return the session
+         */
+        @Override
+        public WebDriver window(String nameOrHandle) {
+            if (!WINDOW_HANDLE.equals(nameOrHandle)) {
+                throw new NoSuchWindowException("No window with handle: " + nameOrHandle);
+            }
+            return HttpDriver.this;
+        }
+
+        /**
+         * Fails, as the session has a single window.
+         *
+         * @param typeHint the window type
+         * @return never returns
+         */
+        @Override
+        public WebDriver newWindow(WindowType typeHint) {
+            throw new UnsupportedCommandException("The HTTP driver does not support new windows");
+        }
+
+        /**
+         * Returns the session, which has no frames.
+         *
+         * @return the session
+         */
+        @Override
+        public WebDriver defaultContent() {
+            return HttpDriver.this;
+        }
+
+        /**
+         * Returns the body of the current page, as no element has the focus without scripts.
+         *
+         * @return the body element
+         */
+        @Override
+        public WebElement activeElement() {
+            return new HttpElement(HttpDriver.this, document.body(), generation);
+        }
+
+        /**
+         * Fails, as alerts are not supported.
+         *
+         * @return never returns
+         */
+        @Override
+        public Alert alert() {
+            throw new NoAlertPresentException("The HTTP driver does not support alerts");
+        }
+    }
+
+    /**
+     * Returns the locale-independent lower case of a string, used for tag names and attribute values.
+     *
+     * @param value the string
+     * @return the lower case string
+     */
+    static String lowerCase(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,390 @@
+package baselabs.framework.selenium.http;
+
+import org.jsoup.nodes.Element;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.Keys;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Element of a page loaded by the {@link HttpDriver}, backed by a node of the parsed document.
+ * Typed keys change the value property of the field, kept by the driver beside the document, so a later form
+ * submission sends them while the document and the page source keep the original value attribute. As there is no layout,
+ * an element is displayed unless it or an ancestor is hidden by an attribute or an inline style, and its
+ * location and size are zero. An element becomes stale once the driver loads another page.
+ */
+class HttpElement implements WebElement, WrapsDriver {
+    private static final Set<String> HIDDEN_TAGS = Set.of("head", "script", "style", "title", "template", "noscript");
+    private static final Set<String> BOOLEAN_ATTRIBUTES = Set.of("checked", "selected", "disabled", "readonly", "required", "multiple");
+    private static final Set<String> URL_ATTRIBUTES = Set.of("href", "src", "action");
+    private final HttpDriver driver;
+    private final Element element;
+    private final int generation;
+
+    /**
+     * Package-private constructor to wrap a node of the current document of a driver.
+     *
+     * @param driver     the driver that loaded the document
+     * @param element    the node of the document
+     * @param generation the generation of the document, see {@link HttpDriver#getGeneration()}
+     */
+    HttpElement(HttpDriver driver, Element element, int generation) {
+        this.driver = driver;
+        this.element = element;
+        this.generation = generation;
+    }
+
+    /**
+     * Clicks the element: links are followed, submit buttons submit their form, checkboxes are toggled,
+     * radio buttons and options are selected. Other elements ignore the click, as no scripts run.
+     */
+    @Override
+    public void click() {
+        checkFresh();
+        if ("a".equals(element.normalName()) && element.hasAttr("href")) {
+            String href = element.absUrl("href");
+            if (href.startsWith("http")) {
+                driver.get(href.replaceAll("#.*$", ""));
+            }
+        } else if (HttpForms.isSubmitButton(element)) {
+            Element form = HttpForms.formOf(element);
+            if (form != null) {
+                driver.submit(form, element);
+            }
+        } else if (HttpForms.isCheckable(element)) {
+            if ("radio".equals(HttpDriver.lowerCase(element.attr("type")))) {
+                Element form = HttpForms.formOf(element);
+                Element scope = form != null ? form : element.ownerDocument();
+                if (scope != null) {
+                    scope.select("input[type=radio]").stream()
+                            .filter(radio -> radio.attr("name").equals(element.attr("name")))
+                            .forEach(radio -> radio.removeAttr("checked"));
+                }
+                element.attr("checked", true);
+            } else {
+                element.attr("checked", !element.hasAttr("checked"));
+            }
+        } else if ("option".equals(element.normalName()) && element.parent() != null) {
+            element.parent().select("option").forEach(option -> option.removeAttr("selected"));
+            element.attr("selected", true);
+        }
+    }
+
+    /**
+     * Submits the form of the element, without a submitter.
+     */
+    @Override
+    public void submit() {
+        checkFresh();
+        Element form = HttpForms.formOf(element);
+        if (form == null) {
+            throw new UnsupportedCommandException("The element is not in a form: " + this);
+        }
+        driver.submit(form, null);
+    }
+
+    /**
+     * Appends keys to the value of the element. An Enter or Return key submits the form of the element.
+     *
+     * @param keysToSend the keys to type
+     */
+    @Override
+    public void sendKeys(CharSequence... keysToSend) {
+        checkFresh();
+        StringBuilder typed = new StringBuilder();
+        boolean enter = false;
+        for (CharSequence keys : keysToSend) {
+            for (int index = 0; index < keys.length(); index++) {
+                char key = keys.charAt(index);
+                if (key == Keys.ENTER.charAt(0) || key == Keys.RETURN.charAt(0)) {
+                    enter = true;
+                } else {
+                    typed.append(key);
+                }
+            }
+        }
+        driver.setValue(element, driver.getValue(element) + typed);
+        if (enter) {
+            Element form = HttpForms.formOf(element);
+            if (form != null) {
+                driver.submit(form, null);
+            }
+        }
+    }
+
+    /**
+     * Clears the value of the element.
+     */
+    @Override
+    public void clear() {
+        checkFresh();
+        driver.setValue(element, "");
+    }
+
+    /**
+     * Returns the tag name of the element.
+     *
+     * @return the tag name
+     */
+    @Override
+    public String getTagName() {
+        checkFresh();
+        return element.tagName();
+    }
+
+    /**
+     * Returns the attribute of the element, or the matching property for value and the boolean attributes.
+     * URL attributes are resolved against the page URL, like the properties of a browser.
+     *
+     * @param name the attribute name
+     * @return the value, or null if the element has no such attribute
+     */
+    @Override
+    public String getAttribute(String name) {
+        checkFresh();
+        String attribute = HttpDriver.lowerCase(name);
+        if ("value".equals(attribute)) {
+            return driver.getValue(element);
+        }
+        if (BOOLEAN_ATTRIBUTES.contains(attribute)) {
+            return element.hasAttr(attribute) ? "true" : null;
+        }
+        if (URL_ATTRIBUTES.contains(attribute) && element.hasAttr(attribute)) {
+            return element.absUrl(attribute);
+        }
+        return element.hasAttr(attribute) ? element.attr(attribute) : null;
+    }
+
+    /**
+     * Returns the attribute of the element as it is in the document, without the value typed into a field.
+     *
+     * @param name the attribute name
+     * @return the value, or null if the element has no such attribute
+     */
+    @Override
+    public String getDomAttribute(String name) {
+        checkFresh();
+        return element.hasAttr(name) ? element.attr(name) : null;
+    }
+
+    /**
+     * Returns the property of the element: the typed value, the state of the boolean attributes, or the attribute.
+     *
+     * @param name the property name
+     * @return the value, or null if the element has no such property
+     */
+    @Override
+    public String getDomProperty(String name) {
+        checkFresh();
+        if ("value".equals(name)) {
+            return driver.getValue(element);
+        }
+        if (BOOLEAN_ATTRIBUTES.contains(name)) {
+            return String.valueOf(element.hasAttr(name));
+        }
+        return getAttribute(name);
+    }
+
+    /**
+     * Returns whether the element is a checked checkbox or radio button, or a selected option.
+     *
+     * @return true if the element is checked or selected, false otherwise
+     */
+    @Override
+    public boolean isSelected() {
+        checkFresh();
+        return element.hasAttr("checked") || element.hasAttr("selected");
+    }
+
+    /**
+     * Returns whether the element is enabled.
+     *
+     * @return false if the element has a disabled attribute, true otherwise
+     */
+    @Override
+    public boolean isEnabled() {
+        checkFresh();
+        return !element.hasAttr("disabled");
+    }
+
+    /**
+     * Returns the visible text of the element and its descendants, with whitespace normalized.
+     *
+     * @return the text, empty if the element is not displayed
+     */
+    @Override
+    public String getText() {
+        return isDisplayed() ? element.text() : "";
+    }
+
+    /**
+     * Finds the descendants of the element matching a locator.
+     *
+     * @param by the locator
+     * @return the matching elements, empty if none match
+     */
+    @Override
+    public List<WebElement> findElements(By by) {
+        checkFresh();
+        return driver.find(by, element);
+    }
+
+    /**
+     * Finds the first descendant of the element matching a locator.
+     *
+     * @param by the locator
+     * @return the first matching element
+     */
+    @Override
+    public WebElement findElement(By by) {
+        checkFresh();
+        return driver.findFirst(by, element);
+    }
+
+    /**
+     * Returns whether the element is displayed: it is not a hidden input or a non-rendered tag, and neither
+     * it nor an ancestor has a hidden attribute or an inline style setting display none or visibility hidden.
+     *
+     * @return true if the element is displayed, false otherwise
+     */
+    @Override
+    public boolean isDisplayed() {
+        checkFresh();
+        if ("input".equals(element.normalName()) && "hidden".equals(HttpDriver.lowerCase(element.attr("type")))) {
+            return false;
+        }
+        for (Element node = element; node != null; node = node.parent()) {
+            String style = HttpDriver.lowerCase(node.attr("style")).replace(" ", "");
+            if (HIDDEN_TAGS.contains(node.normalName()) || node.hasAttr("hidden")
+                    || style.contains("display:none") || style.contains("visibility:hidden")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the location of the element, which is always the origin as pages are not laid out.
+     *
+     * @return the origin
+     */
+    @Override
+    public Point getLocation() {
+        checkFresh();
+        return new Point(0, 0);
+    }
+
+    /**
+     * Returns the size of the element, which is always empty as pages are not laid out.
+     *
+     * @return an empty size
+     */
+    @Override
+    public Dimension getSize() {
+        checkFresh();
+        return new Dimension(0, 0);
+    }
+
+    /**
+     * Returns the rectangle of the element, which is always empty as pages are not laid out.
+     *
+     * @return an empty rectangle at the origin
+     */
+    @Override
+    public Rectangle getRect() {
+        return new Rectangle(getLocation(), getSize());
+    }
+
+    /**
+     * Returns a property of the inline style of the element, as stylesheets are not applied.
+     *
+     * @param propertyName the CSS property name
+     * @return the value of the property in the inline style, empty if it is not set there
+     */
+    @Override
+    public String getCssValue(String propertyName) {
+        checkFresh();
+        for (String declaration : element.attr("style").split(";")) {
+            int colon = declaration.indexOf(':');
+            if (colon > 0 && declaration.substring(0, colon).trim().equalsIgnoreCase(propertyName)) {
+                return declaration.substring(colon + 1).trim();
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Fails, as pages are not rendered.
+     *
+     * @param target the output type
+     * @param <X>    the type of the screenshot
+     * @return never returns
+     */
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        throw new UnsupportedCommandException("The HTTP driver does not render pages, screenshots are not supported");
+    }
+
+    /**
+     * Returns the driver that found the element.
+     *
+     * @return the driver
+     */
+    @Override
+    public WebDriver getWrappedDriver() {
+        return driver;
+    }
+
+    /**
+     * Fails if the driver has loaded another page since the element was found, or the session has been quit.
+     *
+     * @throws StaleElementReferenceException if the element belongs to a previous page
+     */
+    private void checkFresh() {
+        driver.checkOpen();
+        if (generation != driver.getGeneration()) {
+            throw new StaleElementReferenceException("The page has changed since the element was found: " + this);
+        }
+    }
+
+    /**
+     * Returns whether another object wraps the same node of the same page.
+     *
+     * @param other the other object
+     * @return true if both wrap the same node, false otherwise
+     */
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof HttpElement that && element == that.element && generation == that.generation;
+    }
+
+    /**
+     * Returns the hash code of the wrapped node.
+     *
+     * @return the identity hash code of the node
+     */
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(element);
+    }
+
+    /**
+     * Returns a description of the element with its CSS path in the page.
+     *
+     * @return the description
+     */
+    @Override
+    public String toString() {
+        return "HttpElement[" + element.cssSelector() + "]";
+    }
+}
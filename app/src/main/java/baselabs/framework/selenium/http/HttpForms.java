@@ -0,0 +1,113 @@
+package baselabs.framework.selenium.http;
+
+import org.jsoup.nodes.Element;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * HTML form rules of the {@link HttpDriver}: which controls submit a form and which fields a submission sends.
+ */
+final class HttpForms {
+    private static final Set<String> SUBMIT_INPUT_TYPES = Set.of("submit", "image");
+    private static final Set<String> UNSENT_INPUT_TYPES = Set.of("button", "reset", "file");
+    private static final Set<String> CHECKABLE_INPUT_TYPES = Set.of("checkbox", "radio");
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private HttpForms() {
+    }
+
+    /**
+     * Returns whether an element submits its form when clicked.
+     *
+     * @param element the element
+     * @return true for submit and image inputs and for buttons without a type or of type submit
+     */
+    static boolean isSubmitButton(Element element) {
+        String type = HttpDriver.lowerCase(element.attr("type"));
+        return switch (element.normalName()) {
+            case "input" -> SUBMIT_INPUT_TYPES.contains(type);
+            case "button" -> type.isEmpty() || "submit".equals(type);
+            default -> false;
+        };
+    }
+
+    /**
+     * Returns whether an element is a checkbox or a radio button.
+     *
+     * @param element the element
+     * @return true for checkbox and radio inputs
+     */
+    static boolean isCheckable(Element element) {
+        return "input".equals(element.normalName()) && CHECKABLE_INPUT_TYPES.contains(HttpDriver.lowerCase(element.attr("type")));
+    }
+
+    /**
+     * Returns the form an element belongs to.
+     *
+     * @param element the element
+     * @return the closest enclosing form, or null if the element is not in a form
+     */
+    static Element formOf(Element element) {
+        for (Element ancestor = element; ancestor != null; ancestor = ancestor.parent()) {
+            if ("form".equals(ancestor.normalName())) {
+                return ancestor;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Collects the fields a form submission sends: the named, enabled controls of the form, checked
+     * checkboxes and radio buttons only, the selected option of each select, and the submitter alone
+     * among the submit buttons.
+     *
+     * @param form      the form
+     * @param submitter the button that submitted the form, or null
+     * @param values    the current value of a text field, which may differ from its value in the document once typed into
+     * @return the names and values of the fields, in document order
+     */
+    static List<Map.Entry<String, String>> formData(Element form, Element submitter, Function<Element, String> values) {
+        List<Map.Entry<String, String>> fields = new ArrayList<>();
+        for (Element control : form.select("input, select, textarea, button")) {
+            String name = control.attr("name");
+            if (name.isEmpty() || control.hasAttr("disabled")) {
+                continue;
+            }
+            String type = HttpDriver.lowerCase(control.attr("type"));
+            if (isSubmitButton(control)) {
+                if (control == submitter) {
+                    fields.add(Map.entry(name, control.val()));
+                }
+            } else if (isCheckable(control)) {
+                if (control.hasAttr("checked")) {
+                    fields.add(Map.entry(name, control.hasAttr("value") ? control.val() : "on"));
+                }
+            } else if ("select".equals(control.normalName())) {
+                Element option = selectedOption(control);
+                if (option != null) {
+                    fields.add(Map.entry(name, option.hasAttr("value") ? option.val() : option.text()));
+                }
+            } else if (!"button".equals(control.normalName()) && !UNSENT_INPUT_TYPES.contains(type)) {
+                fields.add(Map.entry(name, values.apply(control)));
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Returns the option a select sends: the one marked selected, else the first one.
+     *
+     * @param select the select element
+     * @return the selected option, or null if the select has no options
+     */
+    static Element selectedOption(Element select) {
+        Element selected = select.selectFirst("option[selected]");
+        return selected != null ? selected : select.selectFirst("option");
+    }
+}
@@ -0,0 +1,363 @@
+package baselabs.framework.selenium.http;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.InvalidCookieDomainException;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.logging.Logs;
+
+import java.net.CookieStore;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Options of an {@link HttpDriver} session. Cookies live in the cookie jar the HTTP client sends them from,
+ * scoped to the origin of the page they were added on. Timeouts are kept, and the page load timeout bounds
+ * each request; the window has a fixed size and position, as nothing is rendered.
+ */
+class HttpOptions implements WebDriver.Options {
+    private static final int MILLIS_PER_SECOND = 1000;
+    private static final Duration DEFAULT_PAGE_LOAD_TIMEOUT = Duration.ofSeconds(30);
+    private static final Dimension WINDOW_SIZE = new Dimension(1920, 1080);
+    private final HttpDriver driver;
+    private final CookieStore cookieStore;
+    private final HttpTimeouts timeouts = new HttpTimeouts();
+    private final HttpWindow window = new HttpWindow();
+    private Duration implicitWaitTimeout = Duration.ZERO;
+    private Duration scriptTimeout = Duration.ZERO;
+    private Duration pageLoadTimeout = DEFAULT_PAGE_LOAD_TIMEOUT;
+
+    /**
+     * Package-private constructor to manage the cookie jar and timeouts of a session.
+     *
+     * @param driver      the session
+     * @param cookieStore the cookie jar of the HTTP client of the session
+     */
+    HttpOptions(HttpDriver driver, CookieStore cookieStore) {
+        this.driver = driver;
+        this.cookieStore = cookieStore;
+    }
+
+    /**
+     * Returns how long a request may take before it fails.
+     *
+     * @return the page load timeout
+     */
+    Duration getPageLoadTimeout() {
+        return pageLoadTimeout;
+    }
+
+    /**
+     * Adds a cookie for the origin of the current page.
+     *
+     * @param cookie the cookie to add
+     * @throws InvalidCookieDomainException if no page is loaded or the cookie domain does not match its host
+     */
+    @Override
+    public void addCookie(Cookie cookie) {
+        URI origin = currentOrigin();
+        String domain = cookie.getDomain();
+        if (domain != null && !origin.getHost().endsWith(domain.replaceFirst("^\\.", ""))) {
+            throw new InvalidCookieDomainException("Cookie domain " + domain + " does not match the current host " + origin.getHost());
+        }
+        HttpCookie httpCookie = new HttpCookie(cookie.getName(), cookie.getValue());
+        httpCookie.setVersion(0);
+        httpCookie.setPath(cookie.getPath() == null ? "/" : cookie.getPath());
+        httpCookie.setSecure(cookie.isSecure());
+        httpCookie.setHttpOnly(cookie.isHttpOnly());
+        if (cookie.getExpiry() != null) {
+            httpCookie.setMaxAge(Math.max(0, (cookie.getExpiry().getTime() - System.currentTimeMillis()) / MILLIS_PER_SECOND));
+        }
+        cookieStore.add(origin, httpCookie);
+    }
+
+    /**
+     * Deletes the cookies of the session with the given name.
+     *
+     * @param name the cookie name
+     */
+    @Override
+    public void deleteCookieNamed(String name) {
+        for (HttpCookie httpCookie : cookieStore.getCookies()) {
+            if (httpCookie.getName().equals(name)) {
+                remove(httpCookie);
+            }
+        }
+    }
+
+    /**
+     * Deletes the cookies of the session with the name of the given cookie.
+     *
+     * @param cookie the cookie to delete
+     */
+    @Override
+    public void deleteCookie(Cookie cookie) {
+        deleteCookieNamed(cookie.getName());
+    }
+
+    /**
+     * Deletes every cookie of the session.
+     */
+    @Override
+    public void deleteAllCookies() {
+        cookieStore.removeAll();
+    }
+
+    /**
+     * Returns the cookies sent to the current page.
+     *
+     * @return the cookies, empty on a blank page
+     */
+    @Override
+    public Set<Cookie> getCookies() {
+        URI uri = driver.getCurrentUri();
+        Set<Cookie> cookies = new LinkedHashSet<>();
+        if (uri.getHost() == null) {
+            return cookies;
+        }
+        for (HttpCookie httpCookie : cookieStore.get(uri)) {
+            Date expiry = httpCookie.getMaxAge() < 0 ? null : new Date(System.currentTimeMillis() + httpCookie.getMaxAge() * MILLIS_PER_SECOND);
+            cookies.add(new Cookie.Builder(httpCookie.getName(), httpCookie.getValue())
+                    .domain(uri.getHost())
+                    .path(httpCookie.getPath() == null ? "/" : httpCookie.getPath())
+                    .expiresOn(expiry)
+                    .isSecure(httpCookie.getSecure())
+                    .isHttpOnly(httpCookie.isHttpOnly())
+                    .build());
+        }
+        return cookies;
+    }
+
+    /**
+     * Returns the cookie sent to the current page with the given name.
+     *
+     * @param name the cookie name
+     * @return the cookie, or null if there is none
+     */
+    @Override
+    public Cookie getCookieNamed(String name) {
+        return getCookies().stream().filter(cookie -> cookie.getName().equals(name)).findFirst().orElse(null);
+    }
+
+    /**
+     * Returns the timeouts of the session.
+     *
+     * @return the timeouts
+     */
+    @Override
+    public WebDriver.Timeouts timeouts() {
+        return timeouts;
+    }
+
+    /**
+     * Returns the window of the session.
+     *
+     * @return the window
+     */
+    @Override
+    public WebDriver.Window window() {
+        return window;
+    }
+
+    /**
+     * Fails, as there are no browser logs.
+     *
+     * @return never returns
+     */
+    @Override
+    public Logs logs() {
+        throw new UnsupportedCommandException("The HTTP driver has no browser logs");
+    }
+
+    /**
+     * Returns the origin of the current page, which scopes the cookies added on it.
+     *
+     * @return the scheme and host of the current page
+     * @throws InvalidCookieDomainException if no page is loaded
+     */
+    private URI currentOrigin() {
+        URI uri = driver.getCurrentUri();
+        if (uri.getHost() == null) {
+            throw new InvalidCookieDomainException("Cookies can only be added once a page is loaded, current page: " + uri);
+        }
+        return URI.create(uri.getScheme() + "://" + uri.getAuthority());
+    }
+
+    /**
+     * Removes a cookie from the jar, under every URI it was stored for.
+     *
+     * @param httpCookie the cookie to remove
+     */
+    private void remove(HttpCookie httpCookie) {
+        List<URI> uris = cookieStore.getURIs();
+        for (URI uri : uris) {
+            cookieStore.remove(uri, httpCookie);
+        }
+        cookieStore.remove(null, httpCookie);
+    }
+
+    /**
+     * Timeouts of the session. Implicit waits are kept but have no effect, as a page does not change after it is loaded.
+     */
+    private final class HttpTimeouts implements WebDriver.Timeouts {
+        /**
+         * Sets the implicit wait timeout.
+         *
+         * @param time the timeout
+         * @param unit the unit of the timeout
+         * @return these timeouts
+         */
+        public WebDriver.Timeouts implicitlyWait(long time, TimeUnit unit) {
+            return implicitlyWait(Duration.ofMillis(unit.toMillis(time)));
+        }
+
+        /**
+         * Sets the implicit wait timeout.
+         *
+         * @param duration the timeout
+         * @return these timeouts
+         */
+        @Override
+        public WebDriver.Timeouts implicitlyWait(Duration duration) {
+            implicitWaitTimeout = duration;
+            return this;
+        }
+
+        /**
+         * Returns the implicit wait timeout.
+         *
+         * @return the timeout
+         */
+        @Override
+        public Duration getImplicitWaitTimeout() {
+            return implicitWaitTimeout;
+        }
+
+        /**
+         * Sets the script timeout, which has no effect as scripts are not run.
+         *
+         * @param duration the timeout
+         * @return these timeouts
+         */
+        @Override
+        public WebDriver.Timeouts scriptTimeout(Duration duration) {
+            scriptTimeout = duration;
+            return this;
+        }
+
+        /**
+         * Returns the script timeout.
+         *
+         * @return the timeout
+         */
+        @Override
+        public Duration getScriptTimeout() {
+            return scriptTimeout;
+        }
+
+        /**
+         * Sets the page load timeout.
+         *
+         * @param time the timeout
+         * @param unit the unit of the timeout
+         * @return these timeouts
+         */
+        public WebDriver.Timeouts pageLoadTimeout(long time, TimeUnit unit) {
+            return pageLoadTimeout(Duration.ofMillis(unit.toMillis(time)));
+        }
+
+        /**
+         * Sets the page load timeout, which bounds each request of the session.
+         *
+         * @param duration the timeout
+         * @return these timeouts
+         */
+        @Override
+        public WebDriver.Timeouts pageLoadTimeout(Duration duration) {
+            pageLoadTimeout = duration;
+            return this;
+        }
+
+        /**
+         * Returns the page load timeout.
+         *
+         * @return the timeout
+         */
+        @Override
+        public Duration getPageLoadTimeout() {
+            return pageLoadTimeout;
+        }
+    }
+
+    /**
+     * Window of the session, with a fixed size and position as nothing is rendered.
+     */
+    private static final class HttpWindow implements WebDriver.Window {
+        /**
+         * Returns the size of the window.
+         *
+         * @return the fixed window size
+         */
+        @Override
+        public Dimension getSize() {
+            return WINDOW_SIZE;
+        }
+
+        /**
+         * Ignores the size, as nothing is rendered.
+         *
+         * @param targetSize the requested size
+         */
+        @Override
+        public void setSize(Dimension targetSize) {
+        }
+
+        /**
+         * Returns the position of the window.
+         *
+         * @return the origin
+         */
+        @Override
+        public Point getPosition() {
+            return new Point(0, 0);
+        }
+
+        /**
+         * Ignores the position, as nothing is rendered.
+         *
+         * @param targetPosition the requested position
+         */
+        @Override
+        public void setPosition(Point targetPosition) {
+        }
+
+        /**
+         * Does nothing, as nothing is rendered.
+         */
+        @Override
+        public void maximize() {
+        }
+
+        /**
+         * Does nothing, as nothing is rendered.
+         */
+        @Override
+        public void minimize() {
+        }
+
+        /**
+         * Does nothing, as nothing is rendered.
+         */
+        @Override
+        public void fullscreen() {
+        }
+    }
+}
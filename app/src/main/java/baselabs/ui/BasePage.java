@@ -1,29 +1,72 @@
 package baselabs.ui;
 
+import baselabs.framework.metrics.MetricsRegistry;
+import baselabs.framework.selenium.DomReadyWait;
+import baselabs.framework.selenium.DriverConfig;
 import baselabs.framework.selenium.DriverManager;
+import baselabs.framework.selenium.TimeoutBudget;
 import baselabs.utils.LoggerManager;
 import org.openqa.selenium.*;
 import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.FluentWait;
 import org.openqa.selenium.support.ui.Wait;
 
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
 /**
  * Abstract base class for all page objects.
- * Provides common methods and utilities for interacting with web elements.
+ * Provides common methods and utilities for interacting with web elements. Every wait is capped by the
+ * scenario's {@link TimeoutBudget}, and the time it takes is charged to that budget.
  */
 public abstract class BasePage {
     protected static final LoggerManager LOG = LoggerManager.getInstance();
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+    private static final DriverConfig DRIVER_CONFIG = DriverConfig.getInstance();
+    private static final TimeoutBudget TIMEOUT_BUDGET = TimeoutBudget.getInstance();
+    private static final String CSS_SELECTOR = "css selector";
+    private static final String XPATH = "xpath";
+    private static final String PENDING_CONDITIONS_SCRIPT = "var conditions = arguments[0], pending = [];"
+            + "for (var i = 0; i < conditions.length; i++) {"
+            + "  var condition = conditions[i], element = null;"
+            + "  if (condition.using === 'xpath') {"
+            + "    element = document.evaluate(condition.value, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+            + "  } else {"
+            + "    element = document.querySelector(condition.value);"
+            + "  }"
+            + "  var met = false;"
+            + "  if (element) {"
+            + "    var style = window.getComputedStyle(element);"
+            + "    met = element.getClientRects().length > 0 && style.visibility !== 'hidden' && style.display !== 'none';"
+            + "    if (met && condition.state === 'CLICKABLE') { met = !element.disabled; }"
+            + "  }"
+            + "  if (!met) { pending.push(condition.name); }"
+            + "}"
+            + "return pending;";
+    private static final Map<Class<?>, List<PageCondition>> LOAD_CONDITIONS = new ConcurrentHashMap<>();
     protected final WebDriver driver;
     protected final Wait<WebDriver> wait;
 
     /**
-     * Constructor to initialize the WebDriver and Wait instances.
+     * Constructor to initialize the WebDriver and Wait instances and the {@code @FindBy} fields of the page.
+     * Each field caches the element it finds for the lifetime of the page object.
      */
     public BasePage() {
         DriverManager driverManager = DriverManager.getInstance();
         this.driver = driverManager.getWebDriver();
         this.wait = driverManager.getFluentWait();
-        PageFactory.initElements(driver, this);
+        PageFactory.initElements(new CachingFieldDecorator(driver), this);
         LOG.info("Initialized BasePage with WebDriver and Wait instances");
     }
 
@@ -34,20 +77,98 @@ public abstract class BasePage {
      */
     public abstract void waitUntilPageObjectIsLoaded() throws WebDriverException;
 
+    /**
+     * Waits until every field annotated with {@link LoadCondition} reaches its required state.
+     * All conditions are evaluated together in a single script per evaluation, so loading a page costs one
+     * round trip to the driver per check no matter how many elements it declares. Drivers that cannot run
+     * scripts fall back to one wait per element.
+     *
+     * @throws TimeoutException if some conditions are still pending when the wait times out
+     */
+    protected void waitUntilLoadConditionsAreMet() {
+        long start = System.nanoTime();
+        List<PageCondition> conditions = LOAD_CONDITIONS.computeIfAbsent(getClass(), BasePage::findLoadConditions);
+        List<Map<String, String>> batch = new ArrayList<>();
+        List<PageCondition> unbatched = new ArrayList<>();
+        for (PageCondition condition : conditions) {
+            if (condition.isBatchable() && driver instanceof JavascriptExecutor) {
+                batch.add(condition.toScriptArgument());
+            } else {
+                unbatched.add(condition);
+            }
+        }
+        try {
+            if (!batch.isEmpty() && !waitForBatch(batch)) {
+                unbatched = conditions;
+            }
+            for (PageCondition condition : unbatched) {
+                waitFor(condition.toExpectedCondition(this));
+            }
+        } finally {
+            recordPageMethod("waitUntilLoadConditionsAreMet", start);
+        }
+    }
+
+    /**
+     * Waits until a batch of load conditions is met, checking all of them with one script per evaluation.
+     *
+     * @param batch the conditions, as script arguments
+     * @return true if the conditions were met, false if the driver cannot run the check script
+     * @throws TimeoutException if some conditions are still pending when the wait times out
+     */
+    private boolean waitForBatch(List<Map<String, String>> batch) {
+        AtomicReference<List<?>> pending = new AtomicReference<>(Collections.emptyList());
+        try {
+            waitFor(webDriver -> {
+                pending.set((List<?>) ((JavascriptExecutor) webDriver).executeScript(PENDING_CONDITIONS_SCRIPT, batch));
+                return pending.get().isEmpty();
+            });
+            return true;
+        } catch (UnsupportedCommandException e) {
+            LOG.warn("Driver cannot run the load condition script, waiting for each element: {}", e.getMessage());
+            return false;
+        } catch (TimeoutException e) {
+            throw new TimeoutException(getClass().getSimpleName() + " did not load, pending conditions: " + pending.get(), e);
+        }
+    }
+
+    /**
+     * Collects the load conditions declared on a page class and its superclasses.
+     *
+     * @param pageClass the page class
+     * @return the load conditions
+     */
+    private static List<PageCondition> findLoadConditions(Class<?> pageClass) {
+        List<PageCondition> conditions = new ArrayList<>();
+        for (Class<?> type = pageClass; type != null && type != BasePage.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                LoadCondition loadCondition = field.getAnnotation(LoadCondition.class);
+                if (loadCondition != null) {
+                    field.setAccessible(true);
+                    conditions.add(new PageCondition(field, new Annotations(field).buildBy(), loadCondition.value()));
+                }
+            }
+        }
+        return Collections.unmodifiableList(conditions);
+    }
+
     /**
      * Clicks on the specified web element.
      *
      * @param element the web element to click
      */
     protected void click(WebElement element) {
+        long start = System.nanoTime();
         try {
-            LOG.info("Attempting to click element: " + element);
-            wait.until(ExpectedConditions.elementToBeClickable(element));
+            LOG.info("Attempting to click element: {}", element);
+            waitFor(ExpectedConditions.elementToBeClickable(element));
             element.click();
-            LOG.info("Clicked element: " + element);
+            LOG.info("Clicked element: {}", element);
         } catch (Exception e) {
-            LOG.error("Failed to click element: " + e.getMessage());
+            LOG.error("Failed to click element: {}", e.getMessage());
             throw e;
+        } finally {
+            recordPageMethod("click", start);
         }
     }
 
@@ -58,15 +179,18 @@ public abstract class BasePage {
      * @param text    the text to type
      */
     protected void type(WebElement element, String text) {
+        long start = System.nanoTime();
         try {
-            LOG.info("Attempting to type text into element: " + element);
-            wait.until(ExpectedConditions.visibilityOf(element));
+            LOG.info("Attempting to type text into element: {}", element);
+            waitFor(ExpectedConditions.visibilityOf(element));
             element.clear();
             element.sendKeys(text);
-            LOG.info("Typed text into element: " + element);
+            LOG.info("Typed text into element: {}", element);
         } catch (Exception e) {
-            LOG.error("Failed to type text: " + e.getMessage());
+            LOG.error("Failed to type text: {}", e.getMessage());
             throw e;
+        } finally {
+            recordPageMethod("type", start);
         }
     }
 
@@ -77,15 +201,18 @@ public abstract class BasePage {
      * @return true if the element is displayed, false otherwise
      */
     protected boolean isElementDisplayed(WebElement element) {
+        long start = System.nanoTime();
         try {
-            LOG.info("Checking if element is displayed: " + element);
-            wait.until(ExpectedConditions.visibilityOf(element));
+            LOG.info("Checking if element is displayed: {}", element);
+            waitFor(ExpectedConditions.visibilityOf(element));
             boolean isDisplayed = element.isDisplayed();
-            LOG.info("Element displayed: " + isDisplayed);
+            LOG.info("Element displayed: {}", isDisplayed);
             return isDisplayed;
         } catch (Exception e) {
-            LOG.error("Element is not displayed: " + e.getMessage());
+            LOG.error("Element is not displayed: {}", e.getMessage());
             return false;
+        } finally {
+            recordPageMethod("isElementDisplayed", start);
         }
     }
 
@@ -96,15 +223,212 @@ public abstract class BasePage {
      * @return the text of the element
      */
     protected String getText(WebElement element) {
+        long start = System.nanoTime();
         try {
-            LOG.info("Getting text from element: " + element);
-            wait.until(ExpectedConditions.visibilityOf(element));
+            LOG.info("Getting text from element: {}", element);
+            waitFor(ExpectedConditions.visibilityOf(element));
             String text = element.getText();
-            LOG.info("Got text from element: " + text);
+            LOG.info("Got text from element: {}", text);
             return text;
         } catch (Exception e) {
-            LOG.error("Failed to get text: " + e.getMessage());
+            LOG.error("Failed to get text: {}", e.getMessage());
             throw e;
+        } finally {
+            recordPageMethod("getText", start);
+        }
+    }
+
+    /**
+     * Waits until the condition returns a value that is neither null nor false, for up to the configured
+     * timeout or what is left of the scenario's budget, whichever is shorter.
+     *
+     * @param condition the condition to evaluate
+     * @param <T>       the type of the condition value
+     * @return the value returned by the condition
+     * @throws TimeoutException if the condition is not met in time
+     */
+    protected <T> T waitFor(Function<? super WebDriver, T> condition) {
+        return waitFor(condition, DRIVER_CONFIG.getTimeout());
+    }
+
+    /**
+     * Waits until the condition returns a value that is neither null nor false, for up to the given timeout
+     * or what is left of the scenario's budget, whichever is shorter. The time the wait takes is charged to the budget.
+     *
+     * @param condition the condition to evaluate
+     * @param timeout   how long to wait
+     * @param <T>       the type of the condition value
+     * @return the value returned by the condition
+     * @throws TimeoutException if the condition is not met in time
+     */
+    protected <T> T waitFor(Function<? super WebDriver, T> condition, Duration timeout) {
+        Duration budgeted = TIMEOUT_BUDGET.clamp(timeout);
+        long start = System.nanoTime();
+        try {
+            if (wait instanceof DomReadyWait domReadyWait) {
+                return domReadyWait.until(condition, budgeted);
+            }
+            return new FluentWait<>(driver)
+                    .withTimeout(budgeted)
+                    .pollingEvery(DRIVER_CONFIG.getPollingTime())
+                    .ignoring(NotFoundException.class)
+                    .ignoring(StaleElementReferenceException.class)
+                    .until(condition);
+        } finally {
+            TIMEOUT_BUDGET.spend(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Waits until the first of several outcomes happens, for example a success page or an error banner,
+     * and returns as soon as any of them does. Outcomes are checked in the given order on every evaluation.
+     *
+     * @param outcomes the possible outcomes
+     * @return the name of the outcome that happened
+     * @throws TimeoutException if none of the outcomes happens in time
+     */
+    protected String firstOf(Outcome... outcomes) {
+        long start = System.nanoTime();
+        try {
+            return waitFor(webDriver -> {
+                for (Outcome outcome : outcomes) {
+                    if (outcome.isMet(webDriver)) {
+                        LOG.info("Outcome reached: {}", outcome.name());
+                        return outcome.name();
+                    }
+                }
+                return null;
+            });
+        } finally {
+            recordPageMethod("firstOf", start);
+        }
+    }
+
+    /**
+     * Waits until no visible element matches the locator, returning as soon as that is the case. With the polling
+     * wait strategy the implicit wait is turned off during the check, so an element that is already gone is not
+     * looked for until the implicit wait expires.
+     *
+     * @param locator the locator of the element expected to be absent
+     * @return true if the element is absent or hidden, false if it is still visible when the wait times out
+     */
+    protected boolean expectAbsent(By locator) {
+        long start = System.nanoTime();
+        boolean implicitWait = !(wait instanceof DomReadyWait) && !DRIVER_CONFIG.getImplicitWaitTime().isZero();
+        try {
+            if (implicitWait) {
+                driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+            }
+            return waitFor(ExpectedConditions.invisibilityOfElementLocated(locator));
+        } catch (TimeoutException e) {
+            LOG.info("Element is still displayed: {}", locator);
+            return false;
+        } finally {
+            if (implicitWait) {
+                driver.manage().timeouts().implicitlyWait(DRIVER_CONFIG.getImplicitWaitTime());
+            }
+            recordPageMethod("expectAbsent", start);
+        }
+    }
+
+    /**
+     * Creates an outcome for {@link #firstOf(Outcome...)}.
+     *
+     * @param name      the name returned when the outcome happens
+     * @param condition the condition that tells the outcome happened
+     * @return the outcome
+     */
+    protected static Outcome outcome(String name, Function<? super WebDriver, ?> condition) {
+        return new Outcome(name, condition);
+    }
+
+    /**
+     * Records the time spent in a page object method, named after the concrete page class.
+     *
+     * @param method the method name
+     * @param start  the {@link System#nanoTime()} at which the method started
+     */
+    protected void recordPageMethod(String method, long start) {
+        METRICS.record(MetricsRegistry.PAGE_METHODS, getClass().getSimpleName() + "." + method, System.nanoTime() - start);
+    }
+
+    /**
+     * A possible outcome of an action, raced against the others by {@link #firstOf(Outcome...)}.
+     *
+     * @param name      the name of the outcome
+     * @param condition the condition that tells the outcome happened
+     */
+    protected record Outcome(String name, Function<? super WebDriver, ?> condition) {
+
+        /**
+         * Evaluates the condition once.
+         *
+         * @param webDriver the driver to evaluate the condition against
+         * @return true if the condition returned a value that is neither null nor false, false otherwise
+         */
+        boolean isMet(WebDriver webDriver) {
+            try {
+                Object value = condition.apply(webDriver);
+                return value != null && !Boolean.FALSE.equals(value);
+            } catch (NotFoundException | StaleElementReferenceException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * A load condition declared by a page object field.
+     *
+     * @param field   the annotated field
+     * @param locator the locator built from the field's {@code @FindBy}
+     * @param state   the state the element must reach
+     */
+    private record PageCondition(Field field, By locator, LoadCondition.State state) {
+
+        /**
+         * Returns whether the locator can be evaluated by the batched check script.
+         *
+         * @return true for CSS selector and XPath locators, false otherwise
+         */
+        boolean isBatchable() {
+            if (!(locator instanceof By.Remotable)) {
+                return false;
+            }
+            String using = ((By.Remotable) locator).getRemoteParameters().using();
+            return CSS_SELECTOR.equals(using) || XPATH.equals(using);
+        }
+
+        /**
+         * Converts the condition to an argument of the batched check script.
+         *
+         * @return the condition name, locator strategy, locator value and required state
+         */
+        Map<String, String> toScriptArgument() {
+            By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+            Map<String, String> argument = new LinkedHashMap<>();
+            argument.put("name", field.getName());
+            argument.put("using", parameters.using());
+            argument.put("value", String.valueOf(parameters.value()));
+            argument.put("state", state.name());
+            return argument;
+        }
+
+        /**
+         * Converts the condition to an expected condition on the page's element.
+         *
+         * @param page the page object that owns the field
+         * @return the expected condition
+         */
+        ExpectedCondition<WebElement> toExpectedCondition(BasePage page) {
+            WebElement element;
+            try {
+                element = (WebElement) field.get(page);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot read load condition field: " + field.getName(), e);
+            }
+            return state == LoadCondition.State.CLICKABLE
+                    ? ExpectedConditions.elementToBeClickable(element)
+                    : ExpectedConditions.visibilityOf(element);
         }
     }
 }
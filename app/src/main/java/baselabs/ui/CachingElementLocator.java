@@ -0,0 +1,82 @@
+package baselabs.ui;
+
+import baselabs.framework.metrics.MetricsRegistry;
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+/**
+ * Element locator that finds the element of a page object field once and reuses it until it goes stale.
+ * Page objects are kept across navigations, so a cached element can outlive the page it was found on. Such an element
+ * is not detected here: the next call on it fails with a stale element exception, and the {@link CachingFieldDecorator}
+ * then invalidates the cache, finds the element again and retries the call once. Elements returned by
+ * {@link #findElement()} directly, for example through {@code getWrappedElement()}, are not refreshed and can be stale.
+ * Cache hits and misses are counted in the {@link MetricsRegistry} as {@code elementCache.hits} and
+ * {@code elementCache.misses}.
+ */
+public class CachingElementLocator implements ElementLocator {
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+    private final SearchContext searchContext;
+    private final By by;
+    private WebElement cachedElement;
+
+    /**
+     * Constructor to initialize the locator of a page object field.
+     *
+     * @param searchContext the context to search in
+     * @param field         the page object field, annotated with {@code @FindBy}
+     */
+    public CachingElementLocator(SearchContext searchContext, Field field) {
+        this.searchContext = searchContext;
+        this.by = new Annotations(field).buildBy();
+    }
+
+    /**
+     * Returns the cached element, finding it first if it is not cached.
+     *
+     * @return the element
+     * @throws org.openqa.selenium.NoSuchElementException if the element cannot be found
+     */
+    @Override
+    public WebElement findElement() {
+        if (cachedElement != null) {
+            METRICS.increment("elementCache.hits");
+            return cachedElement;
+        }
+        METRICS.increment("elementCache.misses");
+        cachedElement = searchContext.findElement(by);
+        return cachedElement;
+    }
+
+    /**
+     * Finds every matching element; lists are not cached since their size can change.
+     *
+     * @return the matching elements
+     */
+    @Override
+    public List<WebElement> findElements() {
+        return searchContext.findElements(by);
+    }
+
+    /**
+     * Drops the cached element so that the next lookup finds it again.
+     */
+    public void invalidate() {
+        cachedElement = null;
+    }
+
+    /**
+     * Returns a description of the locator.
+     *
+     * @return the description
+     */
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " '" + by + "'";
+    }
+}
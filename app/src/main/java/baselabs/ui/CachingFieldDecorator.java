@@ -0,0 +1,108 @@
+package baselabs.ui;
+
+import baselabs.framework.metrics.MetricsRegistry;
+import baselabs.utils.LoggerManager;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Field decorator that backs {@code @FindBy} element fields with {@link CachingElementLocator}s.
+ * A call on the field uses the cached element; if the element has gone stale, it is found again and
+ * the call is retried once, which is counted as {@code elementCache.staleRefreshes}.
+ */
+public class CachingFieldDecorator extends DefaultFieldDecorator {
+
+    /**
+     * Constructor to create a decorator for the page objects of the given search context.
+     *
+     * @param searchContext the context to search in, usually the WebDriver
+     */
+    public CachingFieldDecorator(SearchContext searchContext) {
+        super(field -> new CachingElementLocator(searchContext, field));
+    }
+
+    /**
+     * Creates the proxy of an element field.
+     *
+     * @param loader  the class loader of the proxy
+     * @param locator the locator of the field
+     * @return the proxy
+     */
+    @Override
+    protected WebElement proxyForLocator(ClassLoader loader, ElementLocator locator) {
+        InvocationHandler handler = new StaleRefreshingHandler((CachingElementLocator) locator);
+        return (WebElement) Proxy.newProxyInstance(loader, new Class[]{WebElement.class, WrapsElement.class, Locatable.class}, handler);
+    }
+
+    /**
+     * Invocation handler that forwards calls to the cached element and finds it again when it is stale.
+     */
+    private static final class StaleRefreshingHandler implements InvocationHandler {
+        private static final LoggerManager LOG = LoggerManager.getInstance();
+        private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+        private final CachingElementLocator locator;
+
+        /**
+         * Constructor to initialize the handler with the locator of the field.
+         *
+         * @param locator the locator of the field
+         */
+        private StaleRefreshingHandler(CachingElementLocator locator) {
+            this.locator = locator;
+        }
+
+        /**
+         * Forwards a call to the element of the field.
+         *
+         * @param proxy  the proxy the call was made on
+         * @param method the called method
+         * @param args   the arguments of the call
+         * @return the result of the call
+         * @throws Throwable the exception thrown by the element
+         */
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("toString".equals(method.getName()) && method.getParameterCount() == 0) {
+                return "Proxy element for: " + locator;
+            }
+            if ("getWrappedElement".equals(method.getName())) {
+                return locator.findElement();
+            }
+            try {
+                return invokeOn(locator.findElement(), method, args);
+            } catch (StaleElementReferenceException e) {
+                LOG.debug("Cached element is stale, finding it again: {}", locator);
+                METRICS.increment("elementCache.staleRefreshes");
+                locator.invalidate();
+                return invokeOn(locator.findElement(), method, args);
+            }
+        }
+
+        /**
+         * Calls a method on an element, rethrowing what the method throws.
+         *
+         * @param element the element
+         * @param method  the method to call
+         * @param args    the arguments of the call
+         * @return the result of the call
+         * @throws Throwable the exception thrown by the element
+         */
+        private static Object invokeOn(WebElement element, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(element, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package baselabs.ui;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@code @FindBy} field of a page object as a condition for the page to be considered loaded.
+ * All conditions of a page are checked together by {@link BasePage#waitUntilLoadConditionsAreMet()}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface LoadCondition {
+
+    /**
+     * Returns the state the element must reach.
+     *
+     * @return the required element state
+     */
+    State value() default State.VISIBLE;
+
+    /**
+     * States an element can be required to reach.
+     */
+    enum State {
+        VISIBLE,
+        CLICKABLE
+    }
+}
@@ -1,11 +1,18 @@
 package baselabs.ui;
 
+import baselabs.framework.Credentials;
 import baselabs.framework.CredentialsManager;
+import baselabs.framework.metrics.MetricsRegistry;
 import baselabs.framework.selenium.DriverManager;
+import baselabs.framework.selenium.SessionCache;
+import baselabs.framework.selenium.SessionCache.CachedSession;
+import org.openqa.selenium.Cookie;
 import org.openqa.selenium.WebDriver;
 import baselabs.ui.pages.*;
 import baselabs.utils.LoggerManager;
 
+import java.util.Set;
+
 /**
  * Singleton class to manage navigation between pages.
  */
@@ -14,7 +21,6 @@ public class PageTransporter {
     private static final CredentialsManager CREDENTIALS_MANAGER = CredentialsManager.getInstance();
     private String homePageURL;
 
-    private WebDriver driver;
     private static PageTransporter instance;
 
     /**
@@ -24,12 +30,23 @@ public class PageTransporter {
         initialize();
     }
 
+    /**
+     * Protected constructor to navigate relative to another base URL than the one of the environment,
+     * for example a local stub site started on a port chosen at run time.
+     *
+     * @param homePageURL the base URL, ending with a slash
+     */
+    protected PageTransporter(String homePageURL) {
+        LOG.info("Initializing Page Transporter for: {}", homePageURL);
+        this.homePageURL = homePageURL;
+    }
+
     /**
      * Returns the singleton instance of PageTransporter.
      *
      * @return the singleton instance of PageTransporter
      */
-    public static PageTransporter getInstance() {
+    public static synchronized PageTransporter getInstance() {
         if (instance == null) {
             instance = new PageTransporter();
         }
@@ -37,22 +54,24 @@ public class PageTransporter {
     }
 
     /**
-     * Initializes the PageTransporter with the WebDriver and base URL.
+     * Initializes the PageTransporter with the base URL.
      */
     private void initialize() {
         LOG.info("Initializing Page Transporter");
-        this.driver = DriverManager.getInstance().getWebDriver();
         this.homePageURL = CREDENTIALS_MANAGER.getBaseURL();
     }
 
     /**
-     * Navigates to the specified URL.
+     * Navigates the calling thread's WebDriver to the specified URL.
      *
      * @param url the URL to navigate to
      */
     private void goToURL(String url) {
-        LOG.info("Navigating to URL: " + url);
+        LOG.info("Navigating to URL: {}", url);
+        long start = System.nanoTime();
+        WebDriver driver = DriverManager.getInstance().getWebDriver();
         driver.navigate().to(url);
+        MetricsRegistry.getInstance().record(MetricsRegistry.PAGE_METHODS, "PageTransporter.goToURL", System.nanoTime() - start);
     }
 
     /**
@@ -65,4 +84,57 @@ public class PageTransporter {
         goToURL(homePageURL + "login");
         return new LoginPage();
     }
+
+    /**
+     * Navigates to the Home page as an authenticated user of the given role.
+     * A session cached by an earlier login of that role in the same environment is restored when its account
+     * can be leased to the calling thread, so no other scenario uses or logs out that account meanwhile;
+     * otherwise the user logs in through the Login page with any account of the role leased to the calling
+     * thread, and the resulting session is cached for later scenarios.
+     *
+     * @param userRole the role of the user to log in as
+     * @return a new instance of HomePage
+     */
+    public HomePage navigateToHomePageAs(String userRole) {
+        LOG.info("Navigating to Home Page as: {}", userRole);
+        SessionCache sessionCache = SessionCache.getInstance();
+        String envId = CREDENTIALS_MANAGER.getEnvId();
+        if (sessionCache.isEnabled()) {
+            CachedSession session = sessionCache.get(envId, userRole);
+            if (session != null) {
+                if (CREDENTIALS_MANAGER.tryLeaseCredentials(userRole, session.credentials().username()) == null) {
+                    LOG.info("Account of the cached session is in use, logging in through the Login page");
+                } else {
+                    HomePage homePage = restoreSession(session.cookies());
+                    if (homePage.verifyIsLoggedSuccesfylly()) {
+                        return homePage;
+                    }
+                    sessionCache.invalidate(envId, userRole);
+                }
+            }
+        }
+        Credentials credentials = CREDENTIALS_MANAGER.leaseCredentials(userRole);
+        HomePage homePage = navigateToLoginPage().loginWithValidCredentials(credentials.username(), credentials.password());
+        if (sessionCache.isEnabled()) {
+            sessionCache.put(envId, userRole, credentials, DriverManager.getInstance().getWebDriver().manage().getCookies());
+        }
+        return homePage;
+    }
+
+    /**
+     * Loads the cached session cookies into the browser and opens the Home page.
+     *
+     * @param cookies the cached session cookies
+     * @return a new instance of HomePage
+     */
+    private HomePage restoreSession(Set<Cookie> cookies) {
+        LOG.info("Restoring cached session");
+        goToURL(homePageURL);
+        WebDriver driver = DriverManager.getInstance().getWebDriver();
+        for (Cookie cookie : cookies) {
+            driver.manage().addCookie(cookie);
+        }
+        goToURL(homePageURL);
+        return new HomePage();
+    }
 }
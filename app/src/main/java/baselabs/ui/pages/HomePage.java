@@ -1,10 +1,12 @@
 package baselabs.ui.pages;
 
+import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import baselabs.ui.BasePage;
+import baselabs.ui.LoadCondition;
 
 /**
  * This class is in charge of executing the different steps available on the page.
@@ -13,18 +15,22 @@ import baselabs.ui.BasePage;
  * @version 1.0
  */
 public class HomePage extends BasePage {
+    private static final By LOGOUT_LINK = By.cssSelector(".col-md-4 > p > a[href='/logout']");
+    private static final String LOGGED_IN_OUTCOME = "Logout";
+    private static final String LOGGED_OUT_OUTCOME = "Login";
 
+    @LoadCondition(LoadCondition.State.CLICKABLE)
     @FindBy(css = ".col-md-4 > p > a")
     private WebElement loginLink;
 
+    @LoadCondition
     @FindBy(xpath =  "(//div[contains(@class, 'row')]/div[contains(@class, 'col-md-8')])[2]")
     private WebElement quotesSectionRow;
 
     /**
-     * Constructor to initialize the HomePage elements and wait until the page is fully loaded.
+     * Constructor to wait until the HomePage is fully loaded; its elements are initialized by BasePage.
      */
     public HomePage() {
-        PageFactory.initElements(driver, this);
         waitUntilPageObjectIsLoaded();
         LOG.info("Initialized HomePage with WebDriver and Wait instances");
     }
@@ -35,8 +41,7 @@ public class HomePage extends BasePage {
     @Override
     public void waitUntilPageObjectIsLoaded() {
         LOG.info("Waiting until HomePage elements are loaded");
-        loginLink = wait.until(ExpectedConditions.elementToBeClickable(loginLink));
-        quotesSectionRow = wait.until(ExpectedConditions.visibilityOf(quotesSectionRow));
+        waitUntilLoadConditionsAreMet();
         LOG.info("HomePage elements are loaded");
     }
 
@@ -55,8 +60,16 @@ public class HomePage extends BasePage {
      */
     public boolean verifyIsLoggedSuccesfylly() {
         LOG.info("Verifying if user is logged in successfully");
-        boolean isLoggedIn = loginLink.getText().contains("Logout");
-        LOG.info("User logged in successfully: " + isLoggedIn);
+        boolean isLoggedIn;
+        try {
+            isLoggedIn = LOGGED_IN_OUTCOME.equals(firstOf(
+                    outcome(LOGGED_IN_OUTCOME, ExpectedConditions.textToBePresentInElement(loginLink, LOGGED_IN_OUTCOME)),
+                    outcome(LOGGED_OUT_OUTCOME, ExpectedConditions.textToBePresentInElement(loginLink, LOGGED_OUT_OUTCOME))));
+        } catch (TimeoutException e) {
+            LOG.error("Login link is not displayed: {}", e.getMessage());
+            isLoggedIn = false;
+        }
+        LOG.info("User logged in successfully: {}", isLoggedIn);
         return isLoggedIn;
     }
 
@@ -75,8 +88,8 @@ public class HomePage extends BasePage {
      */
     public boolean verifyIsLoggedOut() {
         LOG.info("Verifying if user is logged out successfully");
-        boolean isLoggedOut = loginLink.getText().contains("Login");
-        LOG.info("User logged out successfully: " + isLoggedOut);
+        boolean isLoggedOut = expectAbsent(LOGOUT_LINK) && loginLink.getText().contains(LOGGED_OUT_OUTCOME);
+        LOG.info("User logged out successfully: {}", isLoggedOut);
         return isLoggedOut;
     }
 }
@@ -1,23 +1,33 @@
 package baselabs.ui.pages;
 
+import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 
 import baselabs.ui.BasePage;
+import baselabs.ui.LoadCondition;
 
 /**
  * Page object class for the Login page.
  * Provides methods to interact with the login page elements.
  */
 public class LoginPage extends BasePage {
+    private static final By ERROR_BANNER = By.cssSelector(".error");
+    private static final By LOGOUT_LINK = By.cssSelector(".col-md-4 > p > a[href='/logout']");
+    private static final String ERROR_OUTCOME = "error banner";
+    private static final String HOME_OUTCOME = "home page";
+
+    @LoadCondition(LoadCondition.State.CLICKABLE)
     @FindBy(id = "username")
     private WebElement usernameInput;
 
+    @LoadCondition(LoadCondition.State.CLICKABLE)
     @FindBy(id = "password")
     private WebElement passwordInput;
 
+    @LoadCondition(LoadCondition.State.CLICKABLE)
     @FindBy(xpath = "//input[@value='Login']")
     private WebElement loginButton;
 
@@ -25,10 +35,9 @@ public class LoginPage extends BasePage {
     private WebElement errorMessage;
 
     /**
-     * Constructor to initialize the LoginPage elements and wait until the page is fully loaded.
+     * Constructor to wait until the LoginPage is fully loaded; its elements are initialized by BasePage.
      */
     public LoginPage() {
-        PageFactory.initElements(driver, this);
         waitUntilPageObjectIsLoaded();
         LOG.info("Initialized LoginPage with WebDriver and Wait instances");
     }
@@ -38,9 +47,7 @@ public class LoginPage extends BasePage {
      */
     public void waitUntilPageObjectIsLoaded() {
         LOG.info("Waiting until LoginPage elements are loaded");
-        usernameInput = wait.until(ExpectedConditions.elementToBeClickable(usernameInput));
-        passwordInput = wait.until(ExpectedConditions.elementToBeClickable(passwordInput));
-        loginButton = wait.until(ExpectedConditions.elementToBeClickable(loginButton));
+        waitUntilLoadConditionsAreMet();
         LOG.info("LoginPage elements are loaded");
     }
 
@@ -56,12 +63,33 @@ public class LoginPage extends BasePage {
 
     /**
      * Checks if the error message is displayed on the login page.
+     * The error banner is raced against the home page, so the check returns as soon as the login
+     * attempt either fails or succeeds instead of waiting for the banner to time out.
      *
      * @return true if the error message is displayed, false otherwise
      */
     public boolean isErrorMessageDisplayed() {
         LOG.info("Checking if error message is displayed");
-        return isElementDisplayed(errorMessage);
+        try {
+            boolean isDisplayed = ERROR_OUTCOME.equals(awaitLoginOutcome());
+            LOG.info("Error message displayed: {}", isDisplayed);
+            return isDisplayed;
+        } catch (TimeoutException e) {
+            LOG.error("Neither the error message nor the home page was displayed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Waits until a submitted login either shows the error banner or opens the home page.
+     *
+     * @return the outcome of the login
+     * @throws TimeoutException if neither outcome happens in time
+     */
+    private String awaitLoginOutcome() {
+        return firstOf(
+                outcome(ERROR_OUTCOME, ExpectedConditions.visibilityOfElementLocated(ERROR_BANNER)),
+                outcome(HOME_OUTCOME, ExpectedConditions.presenceOfElementLocated(LOGOUT_LINK)));
     }
 
     /**
@@ -70,12 +98,16 @@ public class LoginPage extends BasePage {
      * @param username the username to log in with
      * @param password the password to log in with
      * @return a new instance of HomePage
+     * @throws IllegalStateException if the login page shows an error instead of opening the home page
      */
     public HomePage loginWithValidCredentials(String username, String password) {
         LOG.info("Logging in with valid credentials");
         type(usernameInput, username);
         type(passwordInput, password);
         click(loginButton);
+        if (ERROR_OUTCOME.equals(awaitLoginOutcome())) {
+            throw new IllegalStateException("Login failed: " + getText(errorMessage));
+        }
         LOG.info("Logged in with valid credentials");
         return new HomePage();
     }
@@ -2,17 +2,24 @@ package baselabs.utils;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.spi.ExtendedLogger;
 
 import java.io.File;
+import java.util.function.Supplier;
 
 /**
  * Singleton class to manage logging using Log4j2.
+ * Messages can be passed as parameterized templates ({@code "Clicked element: {}"}) or as suppliers so
+ * that no message is built when the level is disabled. Loggers are asynchronous and hand events to a
+ * lock-free ring buffer instead of writing the log file on the calling thread. The context selector that
+ * makes them asynchronous is set in log4j2.component.properties, as Log4j reads it once, before the first
+ * logger of any library is created; {@code -Dlog4j2.contextSelector} at JVM start overrides it.
  */
 public class LoggerManager {
-    private Logger logger;
-    private static LoggerManager instance;
+    private static final String FQCN = LoggerManager.class.getName();
+    private static final LoggerManager INSTANCE = new LoggerManager();
+    private ExtendedLogger logger;
 
     /**
      * Private constructor to initialize the logger.
@@ -27,10 +34,7 @@ public class LoggerManager {
      * @return the singleton instance of LoggerManager
      */
     public static LoggerManager getInstance() {
-        if (instance == null) {
-            instance = new LoggerManager();
-        }
-        return instance;
+        return INSTANCE;
     }
 
     /**
@@ -40,7 +44,7 @@ public class LoggerManager {
         LoggerContext context = (LoggerContext) LogManager.getContext(false);
         File file = new File(System.getProperty("user.dir") + File.separator + "src" + File.separator + "main" + File.separator + "resources" + File.separator + "log4j2.properties");
         context.setConfigLocation(file.toURI());
-        logger = LogManager.getLogger(LogManager.class);
+        logger = (ExtendedLogger) LogManager.getLogger(LogManager.class);
     }
 
     /**
@@ -50,7 +54,30 @@ public class LoggerManager {
      * @param message the message to log
      */
     private void log(Level level, String message) {
-        getInstance().logger.log(level, message);
+        logger.logIfEnabled(FQCN, level, null, message);
+    }
+
+    /**
+     * Logs a parameterized message at the specified level.
+     *
+     * @param level  the logging level
+     * @param format the message template, with {@code {}} placeholders
+     * @param params the values of the placeholders
+     */
+    private void log(Level level, String format, Object... params) {
+        logger.logIfEnabled(FQCN, level, null, format, params);
+    }
+
+    /**
+     * Logs a lazily built message at the specified level.
+     *
+     * @param level    the logging level
+     * @param supplier the supplier of the message, only called if the level is enabled
+     */
+    private void log(Level level, Supplier<String> supplier) {
+        if (logger.isEnabled(level)) {
+            logger.logIfEnabled(FQCN, level, null, supplier.get());
+        }
     }
 
     /**
@@ -62,6 +89,25 @@ public class LoggerManager {
         log(Level.DEBUG, message);
     }
 
+    /**
+     * Logs a parameterized debug message.
+     *
+     * @param format the message template, with {@code {}} placeholders
+     * @param params the values of the placeholders
+     */
+    public void debug(String format, Object... params) {
+        log(Level.DEBUG, format, params);
+    }
+
+    /**
+     * Logs a lazily built debug message.
+     *
+     * @param supplier the supplier of the message
+     */
+    public void debug(Supplier<String> supplier) {
+        log(Level.DEBUG, supplier);
+    }
+
     /**
      * Logs an error message.
      *
@@ -71,6 +117,25 @@ public class LoggerManager {
         log(Level.ERROR, message);
     }
 
+    /**
+     * Logs a parameterized error message.
+     *
+     * @param format the message template, with {@code {}} placeholders
+     * @param params the values of the placeholders
+     */
+    public void error(String format, Object... params) {
+        log(Level.ERROR, format, params);
+    }
+
+    /**
+     * Logs a lazily built error message.
+     *
+     * @param supplier the supplier of the message
+     */
+    public void error(Supplier<String> supplier) {
+        log(Level.ERROR, supplier);
+    }
+
     /**
      * Logs an info message.
      *
@@ -80,6 +145,25 @@ public class LoggerManager {
         log(Level.INFO, message);
     }
 
+    /**
+     * Logs a parameterized info message.
+     *
+     * @param format the message template, with {@code {}} placeholders
+     * @param params the values of the placeholders
+     */
+    public void info(String format, Object... params) {
+        log(Level.INFO, format, params);
+    }
+
+    /**
+     * Logs a lazily built info message.
+     *
+     * @param supplier the supplier of the message
+     */
+    public void info(Supplier<String> supplier) {
+        log(Level.INFO, supplier);
+    }
+
     /**
      * Logs a warning message.
      *
@@ -88,4 +172,23 @@ public class LoggerManager {
     public void warn(String message) {
         log(Level.WARN, message);
     }
+
+    /**
+     * Logs a parameterized warning message.
+     *
+     * @param format the message template, with {@code {}} placeholders
+     * @param params the values of the placeholders
+     */
+    public void warn(String format, Object... params) {
+        log(Level.WARN, format, params);
+    }
+
+    /**
+     * Logs a lazily built warning message.
+     *
+     * @param supplier the supplier of the message
+     */
+    public void warn(Supplier<String> supplier) {
+        log(Level.WARN, supplier);
+    }
 }
@@ -0,0 +1,77 @@
+package baselabs.framework.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the log-scale buckets of {@link LatencyHistogram} and the summary computed from them.
+ */
+class LatencyHistogramTest {
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final int SAMPLES = 1000;
+    private static final double PRECISION = 1.0 / 64;
+    private static final double P50 = 0.50;
+    private static final double P95 = 0.95;
+    private static final double P99 = 0.99;
+    private static final long LARGEST_EXACT_VALUE = 63;
+    private static final long[] LARGE_VALUES = {64, 65, 127, 128, 129, 1_000_000, 123_456_789_012L, Long.MAX_VALUE};
+
+    /**
+     * Count, total, mean and max are exact, and each percentile is at or at most one bucket above the real one.
+     */
+    @Test
+    void summaryReportsExactTotalsAndBucketedPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= SAMPLES; i++) {
+            histogram.record(i * NANOS_PER_MILLI);
+        }
+        Map<String, Object> summary = histogram.summary();
+        assertEquals(SAMPLES, summary.get("count"));
+        assertEquals(SAMPLES * (SAMPLES + 1) / 2.0, summary.get("totalMs"));
+        assertEquals((SAMPLES + 1) / 2.0, summary.get("meanMs"));
+        assertEquals((double) SAMPLES, summary.get("maxMs"));
+        assertWithinPrecision(SAMPLES * P50, (double) summary.get("p50Ms"));
+        assertWithinPrecision(SAMPLES * P95, (double) summary.get("p95Ms"));
+        assertWithinPrecision(SAMPLES * P99, (double) summary.get("p99Ms"));
+    }
+
+    /**
+     * A histogram without samples reports zeros.
+     */
+    @Test
+    void emptySummaryReportsZeros() {
+        Map<String, Object> summary = new LatencyHistogram().summary();
+        assertEquals(0, summary.get("count"));
+        assertEquals(0.0, summary.get("p99Ms"));
+        assertEquals(0.0, summary.get("maxMs"));
+    }
+
+    /**
+     * Buckets are contiguous and ordered, small values are exact and every value lies in its own bucket.
+     */
+    @Test
+    void bucketsCoverEveryValueInOrder() {
+        assertEquals(0, LatencyHistogram.bucketOf(0));
+        assertEquals(LARGEST_EXACT_VALUE, LatencyHistogram.highestValueOf(LatencyHistogram.bucketOf(LARGEST_EXACT_VALUE)));
+        for (long value : LARGE_VALUES) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue(LatencyHistogram.highestValueOf(bucket) >= value, "highest value of the bucket of " + value);
+            assertTrue(LatencyHistogram.highestValueOf(bucket - 1) < value, "highest value of the bucket below " + value);
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValueOf(LatencyHistogram.bucketOf(Long.MAX_VALUE)));
+    }
+
+    /**
+     * Asserts that a bucketed percentile is not below the real one and within the precision of the buckets.
+     *
+     * @param expected the real percentile
+     * @param actual   the reported percentile
+     */
+    private static void assertWithinPrecision(double expected, double actual) {
+        assertTrue(actual >= expected && actual <= expected * (1 + PRECISION), expected + " reported as " + actual);
+    }
+}
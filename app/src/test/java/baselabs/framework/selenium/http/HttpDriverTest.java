@@ -0,0 +1,179 @@
+package baselabs.framework.selenium.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Keys;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the {@link HttpDriver} against a local login site: form submission and encoding, redirects with
+ * the session cookie, staleness of elements after a navigation and the page source of typed fields.
+ */
+class HttpDriverTest {
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_FOUND = 302;
+    private static final String PASSWORD = "s3cr&t pass";
+    private final List<String> submissions = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private HttpDriver driver;
+    private String baseUrl;
+
+    /**
+     * Starts the login site on a free port and opens a session.
+     *
+     * @throws IOException if the server cannot be started
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/login", this::handleLogin);
+        server.createContext("/home", this::handleHome);
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort() + "/";
+        driver = new HttpDriver();
+    }
+
+    /**
+     * Ends the session and stops the login site.
+     */
+    @AfterEach
+    void tearDown() {
+        driver.quit();
+        server.stop(0);
+    }
+
+    /**
+     * Clicking the submit button posts the encoded form, follows the redirect and keeps the session cookie.
+     */
+    @Test
+    void submitPostsTheFormAndFollowsTheRedirect() {
+        driver.get(baseUrl + "login");
+        driver.findElement(By.id("username")).sendKeys("admin");
+        driver.findElement(By.id("password")).sendKeys(PASSWORD);
+        driver.findElement(By.cssSelector("input[type=submit]")).click();
+
+        assertEquals(List.of("csrf_token=token&username=admin&password=s3cr%26t+pass&login=Login"), submissions);
+        assertEquals(baseUrl + "home", driver.getCurrentUrl());
+        assertEquals("Welcome admin", driver.findElement(By.tagName("h1")).getText());
+        driver.navigate().refresh();
+        assertEquals("Welcome admin", driver.findElement(By.tagName("h1")).getText());
+    }
+
+    /**
+     * The Enter key submits the form without a submitter.
+     */
+    @Test
+    void enterKeySubmitsTheForm() {
+        driver.get(baseUrl + "login");
+        driver.findElement(By.id("username")).sendKeys("admin");
+        driver.findElement(By.id("password")).sendKeys("admin", Keys.ENTER);
+
+        assertEquals(List.of("csrf_token=token&username=admin&password=admin"), submissions);
+        assertEquals(baseUrl + "home", driver.getCurrentUrl());
+    }
+
+    /**
+     * Elements found before a navigation are stale afterwards, and the same locator finds the new page's element.
+     */
+    @Test
+    void elementsBecomeStaleAfterNavigation() {
+        driver.get(baseUrl + "login");
+        WebElement link = driver.findElement(By.linkText("Home"));
+        link.click();
+
+        assertThrows(StaleElementReferenceException.class, link::getText);
+        assertThrows(StaleElementReferenceException.class, link::click);
+        driver.navigate().back();
+        assertEquals(baseUrl + "login", driver.getCurrentUrl());
+        assertEquals("Home", driver.findElement(By.linkText("Home")).getText());
+    }
+
+    /**
+     * Typed values are properties of the fields: they are read back as the value, but the document and the
+     * page source keep the original value attribute, so a typed password never appears in the page source.
+     */
+    @Test
+    void typedValuesStayOutOfThePageSource() {
+        driver.get(baseUrl + "login");
+        WebElement password = driver.findElement(By.id("password"));
+        password.sendKeys(PASSWORD);
+
+        assertEquals(PASSWORD, password.getAttribute("value"));
+        assertEquals(PASSWORD, password.getDomProperty("value"));
+        assertNull(password.getDomAttribute("value"));
+        assertFalse(driver.getPageSource().contains("s3cr"));
+        password.clear();
+        assertEquals("", password.getAttribute("value"));
+        assertTrue(driver.getPageSource().contains("id=\"password\""));
+    }
+
+    /**
+     * Serves the login form and handles its submission, redirecting to the home page with a session cookie.
+     *
+     * @param exchange the HTTP exchange
+     * @throws IOException if the response cannot be written
+     */
+    private void handleLogin(HttpExchange exchange) throws IOException {
+        if ("POST".equals(exchange.getRequestMethod())) {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            submissions.add(body);
+            exchange.getResponseHeaders().add("Set-Cookie", "session=admin; Path=/");
+            exchange.getResponseHeaders().add("Location", "/home");
+            exchange.sendResponseHeaders(HTTP_FOUND, -1);
+            exchange.close();
+            return;
+        }
+        respond(exchange, "<a href='/home'>Home</a>"
+                + "<form action='/login' method='post'>"
+                + "<input type='hidden' name='csrf_token' value='token'>"
+                + "<input type='text' id='username' name='username'>"
+                + "<input type='password' id='password' name='password'>"
+                + "<input type='submit' name='login' value='Login'>"
+                + "</form>");
+    }
+
+    /**
+     * Serves the home page, greeting the user of the session cookie.
+     *
+     * @param exchange the HTTP exchange
+     * @throws IOException if the response cannot be written
+     */
+    private void handleHome(HttpExchange exchange) throws IOException {
+        String cookie = exchange.getRequestHeaders().getFirst("Cookie");
+        respond(exchange, cookie != null && cookie.contains("session=admin") ? "<h1>Welcome admin</h1>" : "<h1>Welcome guest</h1>");
+    }
+
+    /**
+     * Writes an HTML page.
+     *
+     * @param exchange the HTTP exchange
+     * @param body     the body of the page
+     * @throws IOException if the response cannot be written
+     */
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = ("<html><head><title>Test</title></head><body>" + body + "</body></html>").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(HTTP_OK, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
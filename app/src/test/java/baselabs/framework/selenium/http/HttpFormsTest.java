@@ -0,0 +1,100 @@
+package baselabs.framework.selenium.http;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the form rules of {@link HttpForms}: which controls submit a form and which fields a submission sends.
+ */
+class HttpFormsTest {
+    private static final String FORM = "<form id='form' action='/login' method='post'>"
+            + "<input type='hidden' name='csrf_token' value='token'>"
+            + "<input type='text' name='username' value='initial'>"
+            + "<input type='password' name='password'>"
+            + "<input type='text' value='unnamed'>"
+            + "<input type='text' name='disabled' value='skipped' disabled>"
+            + "<input type='checkbox' name='remember' checked>"
+            + "<input type='checkbox' name='newsletter' value='yes'>"
+            + "<input type='radio' name='plan' value='free'>"
+            + "<input type='radio' name='plan' value='paid' checked>"
+            + "<select name='country'><option value='ar'>Argentina</option><option selected>Bolivia</option></select>"
+            + "<select name='language'><option value='es'>Spanish</option><option value='en'>English</option></select>"
+            + "<textarea name='comment'>Hello</textarea>"
+            + "<input type='file' name='avatar'>"
+            + "<input type='reset' name='reset' value='Reset'>"
+            + "<button type='button' name='help'>Help</button>"
+            + "<input type='submit' name='login' value='Login'>"
+            + "<button name='register' value='yes'>Register</button>"
+            + "</form>";
+
+    /**
+     * A submission sends the named, enabled controls in document order, with the current value of text fields,
+     * checked controls only, the selected or first option of each select, and only the submitter among the buttons.
+     */
+    @Test
+    void formDataSendsTheSuccessfulControls() {
+        Element form = parseForm();
+        Element submitter = form.selectFirst("input[name=login]");
+        List<Map.Entry<String, String>> fields = HttpForms.formData(form, submitter,
+                control -> "password".equals(control.attr("name")) ? "s3cret" : control.val());
+        assertEquals(List.of(
+                Map.entry("csrf_token", "token"),
+                Map.entry("username", "initial"),
+                Map.entry("password", "s3cret"),
+                Map.entry("remember", "on"),
+                Map.entry("plan", "paid"),
+                Map.entry("country", "Bolivia"),
+                Map.entry("language", "es"),
+                Map.entry("comment", "Hello"),
+                Map.entry("login", "Login")), fields);
+    }
+
+    /**
+     * A submission with the Enter key has no submitter, so no button is sent.
+     */
+    @Test
+    void formDataWithoutSubmitterSendsNoButton() {
+        List<Map.Entry<String, String>> fields = HttpForms.formData(parseForm(), null, Element::val);
+        assertTrue(fields.stream().noneMatch(field -> "login".equals(field.getKey()) || "register".equals(field.getKey())));
+    }
+
+    /**
+     * Submit inputs and buttons without a type or of type submit submit the form; other controls do not.
+     */
+    @Test
+    void submitButtonsAreRecognized() {
+        Element form = parseForm();
+        assertTrue(HttpForms.isSubmitButton(form.selectFirst("input[name=login]")));
+        assertTrue(HttpForms.isSubmitButton(form.selectFirst("button[name=register]")));
+        assertFalse(HttpForms.isSubmitButton(form.selectFirst("button[name=help]")));
+        assertFalse(HttpForms.isSubmitButton(form.selectFirst("input[name=username]")));
+    }
+
+    /**
+     * A control belongs to its closest enclosing form, and an element outside any form to none.
+     */
+    @Test
+    void formOfFindsTheEnclosingForm() {
+        Element body = Jsoup.parse(FORM + "<p id='outside'>Outside</p>").body();
+        assertEquals("form", HttpForms.formOf(body.selectFirst("input[name=username]")).id());
+        assertNull(HttpForms.formOf(body.selectFirst("#outside")));
+    }
+
+    /**
+     * Parses the test form.
+     *
+     * @return the form element
+     */
+    private static Element parseForm() {
+        return Jsoup.parse(FORM).selectFirst("#form");
+    }
+}
@@ -0,0 +1,110 @@
+package baselabs.hooks;
+
+import baselabs.framework.artifacts.ArtifactCapture;
+import baselabs.framework.artifacts.ArtifactWriter;
+import baselabs.framework.selenium.DriverConfig;
+import baselabs.framework.selenium.DriverManager;
+import baselabs.framework.selenium.DriverPool;
+import baselabs.utils.LoggerManager;
+import io.cucumber.java.After;
+import io.cucumber.java.AfterAll;
+import io.cucumber.java.AfterStep;
+import io.cucumber.java.Scenario;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * This class contains hooks that capture a screenshot, a DOM snapshot and the browser console log when a scenario
+ * fails, or after every step with {@code webdriver.artifacts.capture=step}. The artifacts are written in the background
+ * under {@code webdriver.artifacts.dir}, and links to them are attached to the scenario in the Cucumber report.
+ */
+public class ArtifactHooks {
+    private static final LoggerManager LOG = LoggerManager.getInstance();
+    private static final DriverConfig DRIVER_CONFIG = DriverConfig.getInstance();
+    private static final String CAPTURE_OFF = "off";
+    private static final String CAPTURE_STEP = "step";
+    private static final int MAX_NAME_LENGTH = 80;
+    private static final int ID_PREFIX_LENGTH = 8;
+    private static final Duration FLUSH_TIMEOUT = Duration.ofSeconds(30);
+    private int stepCount;
+    private boolean failureCaptured;
+
+    /**
+     * This method is executed after each step to capture the browser after every step, or after the step that failed.
+     *
+     * @param scenario the current scenario
+     */
+    @AfterStep
+    public void afterStep(Scenario scenario) {
+        stepCount++;
+        String capture = DRIVER_CONFIG.getArtifactCapture();
+        boolean failed = scenario.isFailed();
+        if (CAPTURE_STEP.equals(capture) || !CAPTURE_OFF.equals(capture) && failed && !failureCaptured) {
+            capture(scenario, "step-" + stepCount + (failed ? "-failed" : ""));
+            failureCaptured = failed;
+        }
+    }
+
+    /**
+     * This method is executed after each scenario, before its WebDriver session is released, to capture the browser
+     * when the scenario failed outside of a step, for example in another hook.
+     *
+     * @param scenario the current scenario
+     */
+    @After(order = 2)
+    public void afterScenario(Scenario scenario) {
+        if (!CAPTURE_OFF.equals(DRIVER_CONFIG.getArtifactCapture()) && scenario.isFailed() && !failureCaptured) {
+            capture(scenario, "failed");
+        }
+    }
+
+    /**
+     * This method waits for the artifacts still being written once the test is complete.
+     */
+    @AfterAll
+    public static void afterAll() {
+        if (!CAPTURE_OFF.equals(DRIVER_CONFIG.getArtifactCapture())) {
+            ArtifactWriter.getInstance().flush(FLUSH_TIMEOUT);
+        }
+    }
+
+    /**
+     * Captures the browser of the scenario, if it has one, and attaches links to the artifacts to the scenario.
+     *
+     * @param scenario the current scenario
+     * @param label    the prefix of the artifact file names
+     */
+    private void capture(Scenario scenario, String label) {
+        DriverManager driverManager = DriverPool.getInstance().getLeased();
+        if (driverManager == null) {
+            LOG.warn("No WebDriver session to capture artifacts from: {}", scenario.getName());
+            return;
+        }
+        Path directory = DRIVER_CONFIG.getArtifactDir().resolve(DRIVER_CONFIG.getBrowser()).resolve(directoryName(scenario));
+        List<Path> files = ArtifactCapture.getInstance().capture(driverManager.getWebDriver(), directory, label);
+        if (!files.isEmpty()) {
+            scenario.attach(files.stream().map(file -> file.toAbsolutePath().toUri().toString()).collect(Collectors.joining("\n")),
+                    "text/uri-list", label);
+            LOG.info("Queued {} artifacts of {} to: {}", files.size(), label, directory);
+        }
+    }
+
+    /**
+     * Returns the directory name of a scenario: its name made file-safe, and the start of its ID so that scenarios
+     * with the same name, outline rows and retries do not overwrite each other.
+     *
+     * @param scenario the scenario
+     * @return the directory name
+     */
+    private static String directoryName(Scenario scenario) {
+        String name = scenario.getName().replaceAll("[^A-Za-z0-9]+", "-").replaceAll("^-|-$", "");
+        if (name.length() > MAX_NAME_LENGTH) {
+            name = name.substring(0, MAX_NAME_LENGTH);
+        }
+        String id = scenario.getId();
+        return name + "-" + id.substring(0, Math.min(id.length(), ID_PREFIX_LENGTH));
+    }
+}
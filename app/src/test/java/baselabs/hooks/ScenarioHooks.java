@@ -1,6 +1,12 @@
 package baselabs.hooks;
 
+import baselabs.framework.CredentialsManager;
+import baselabs.framework.selenium.DriverConfig;
 import baselabs.framework.selenium.DriverManager;
+import baselabs.framework.selenium.DriverPool;
+import baselabs.framework.selenium.SessionCache;
+import baselabs.framework.selenium.TimeoutBudget;
+import io.cucumber.java.After;
 import io.cucumber.java.AfterAll;
 import io.cucumber.java.Before;
 import io.cucumber.java.Scenario;
@@ -16,6 +22,9 @@ import static org.openqa.selenium.edge.EdgeDriverService.EDGE_DRIVER_SILENT_OUTP
  */
 public class ScenarioHooks {
     private static final LoggerManager LOG = LoggerManager.getInstance();
+    private static final String FRESH_LOGIN_TAG = "@FreshLogin";
+    private static final String HTTP_DRIVER_TAG = "@HttpDriver";
+    private String scenarioBrowser;
 
     /**
      * Disables other Java loggers and automation messages from the browser.
@@ -28,21 +37,50 @@ public class ScenarioHooks {
 
     /**
      * This method is executed before each scenario to disable Java loggers and initialize the WebDriver.
+     * Scenarios tagged {@code @HttpDriver} run on the HTTP driver instead of the browser of the run.
      *
      * @param scenario the current scenario
      */
     @Before(order = 1)
     public void beforeScenario(Scenario scenario) {
-        LOG.info("Scenario: --> " + scenario.getName());
+        LOG.info("Scenario: --> {}", scenario.getName());
         disableOtherJavaLoggers();
+        if (scenario.getSourceTagNames().contains(HTTP_DRIVER_TAG)) {
+            scenarioBrowser = DriverConfig.getInstance().getBrowser();
+            DriverConfig.getInstance().setThreadBrowser(DriverConfig.HTTP_BROWSER);
+        }
+        SessionCache.getInstance().setEnabled(!scenario.getSourceTagNames().contains(FRESH_LOGIN_TAG));
         DriverManager.getInstance().getWebDriver();
+        TimeoutBudget.getInstance().start(DriverConfig.getInstance().getScenarioTimeoutBudget());
     }
 
     /**
-     * This method is responsible to close the driver once the test is complete.
+     * This method is executed after each scenario to return the WebDriver session and the leased accounts to their pools.
+     *
+     * @param scenario the current scenario
+     */
+    @After(order = 1)
+    public void afterScenario(Scenario scenario) {
+        LOG.info("Scenario finished: --> {} [{}]", scenario.getName(), scenario.getStatus());
+        TimeoutBudget.getInstance().clear();
+        DriverPool.getInstance().release();
+        if (scenarioBrowser != null) {
+            DriverConfig.getInstance().setThreadBrowser(scenarioBrowser);
+        }
+        CredentialsManager.getInstance().releaseCredentials();
+    }
+
+    /**
+     * This method is responsible to close the drivers once the test is complete. In a browser matrix the other
+     * browsers are still running, so only the pool of this browser is closed here and {@code FeatureRunner}
+     * closes the remaining pools once every browser has finished.
      */
     @AfterAll
     public static void afterAll() {
-        DriverManager.getInstance().quitWebDriver();
+        if (DriverConfig.getInstance().getBrowsers().isEmpty()) {
+            DriverPool.shutdownAll();
+        } else {
+            DriverPool.getInstance().shutdown();
+        }
     }
 }
@@ -0,0 +1,89 @@
+package baselabs.plugins;
+
+import baselabs.framework.metrics.MetricsRegistry;
+import baselabs.framework.selenium.DriverConfig;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.cucumber.plugin.event.TestStepStarted;
+
+import java.io.File;
+
+/**
+ * Cucumber plugin that attributes timed WebDriver commands to the running step and writes the collected
+ * latency histograms (p50/p95/p99 per command, page object method, step and scenario) as JSON at the end of the run.
+ * Only the metrics of the browser the plugin was created for are written, so every runtime of a matrix run gets its own.
+ */
+public class CommandMetricsPlugin implements ConcurrentEventListener {
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+    private static final String SCENARIOS = "scenarios";
+    private final File output;
+    private final String browser = DriverConfig.getInstance().getBrowser();
+
+    /**
+     * Constructor to set the file the metrics are written to.
+     *
+     * @param output the JSON file to write
+     */
+    public CommandMetricsPlugin(File output) {
+        this.output = output;
+    }
+
+    /**
+     * Registers the handlers of the plugin.
+     *
+     * @param publisher the Cucumber event publisher
+     */
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestStepStarted.class, this::handleStepStarted);
+        publisher.registerHandlerFor(TestStepFinished.class, this::handleStepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::handleTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> METRICS.writeJson(output.toPath(), browser));
+    }
+
+    /**
+     * Marks the step as running on the current thread so WebDriver commands are attributed to it.
+     *
+     * @param event the step started event
+     */
+    private void handleStepStarted(TestStepStarted event) {
+        if (event.getTestStep() instanceof PickleStepTestStep step) {
+            METRICS.setCurrentStep(stepName(step));
+        }
+    }
+
+    /**
+     * Records the duration of a finished step.
+     *
+     * @param event the step finished event
+     */
+    private void handleStepFinished(TestStepFinished event) {
+        if (event.getTestStep() instanceof PickleStepTestStep step) {
+            METRICS.record(MetricsRegistry.STEPS, stepName(step), event.getResult().getDuration().toNanos());
+            METRICS.setCurrentStep(null);
+        }
+    }
+
+    /**
+     * Records the duration of a finished scenario.
+     *
+     * @param event the test case finished event
+     */
+    private void handleTestCaseFinished(TestCaseFinished event) {
+        METRICS.record(SCENARIOS, event.getTestCase().getName(), event.getResult().getDuration().toNanos());
+    }
+
+    /**
+     * Returns the name used to report a step.
+     *
+     * @param step the step
+     * @return the step keyword and text
+     */
+    private static String stepName(PickleStepTestStep step) {
+        return step.getStep().getKeyword().trim() + " " + step.getStep().getText();
+    }
+}
@@ -0,0 +1,33 @@
+package baselabs.plugins;
+
+import baselabs.framework.selenium.DriverConfig;
+import baselabs.framework.selenium.DriverPool;
+import baselabs.utils.LoggerManager;
+import io.cucumber.plugin.EventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.TestRunStarted;
+
+/**
+ * Cucumber plugin that starts WebDriver sessions in the background as soon as Cucumber creates its plugins,
+ * so browser startup overlaps with glue scanning and feature parsing instead of delaying the first scenario.
+ */
+public class DriverWarmupPlugin implements EventListener {
+    private static final LoggerManager LOG = LoggerManager.getInstance();
+
+    /**
+     * Constructor that starts the configured number of warm-up sessions.
+     */
+    public DriverWarmupPlugin() {
+        DriverPool.getInstance().warmUp(DriverConfig.getInstance().getWarmupSize());
+    }
+
+    /**
+     * Registers the handlers of the plugin.
+     *
+     * @param publisher the Cucumber event publisher
+     */
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestRunStarted.class, event -> LOG.info("Test run started, driver warm-up running in background"));
+    }
+}
@@ -0,0 +1,114 @@
+package baselabs.plugins;
+
+import baselabs.framework.metrics.MetricsRegistry;
+import baselabs.framework.selenium.DriverPool;
+import baselabs.runner.FailureClassifier;
+import baselabs.utils.LoggerManager;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.Result;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestStepFinished;
+
+import java.net.URI;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Cucumber plugin that classifies the scenarios that did not pass and collects the ones that failed on
+ * the infrastructure, so they can be retried. When a step fails on the infrastructure, the session of
+ * the scenario is marked so that the driver pool quits it instead of handing it to the next scenario.
+ */
+public class InfrastructureFailurePlugin implements ConcurrentEventListener {
+    private static final LoggerManager LOG = LoggerManager.getInstance();
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+    private final Set<String> failedScenarios = Collections.synchronizedSet(new LinkedHashSet<>());
+    private final Set<String> infrastructureFailures = Collections.synchronizedSet(new LinkedHashSet<>());
+
+    /**
+     * Registers the handlers of the plugin.
+     *
+     * @param publisher the Cucumber event publisher
+     */
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestStepFinished.class, this::handleStepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::handleTestCaseFinished);
+    }
+
+    /**
+     * Marks the session of the scenario as unhealthy when a step fails on the infrastructure.
+     * Concurrent listeners receive the event on the thread running the scenario, which owns the session.
+     *
+     * @param event the step finished event
+     */
+    private void handleStepFinished(TestStepFinished event) {
+        Result result = event.getResult();
+        if (result.getStatus() == Status.FAILED && FailureClassifier.isInfrastructureFailure(result.getError())) {
+            DriverPool.getInstance().markUnhealthy();
+        }
+    }
+
+    /**
+     * Records a scenario that did not pass, classifying its failure.
+     *
+     * @param event the test case finished event
+     */
+    private void handleTestCaseFinished(TestCaseFinished event) {
+        Result result = event.getResult();
+        if (result.getStatus().isOk()) {
+            return;
+        }
+        String scenarioId = scenarioId(event.getTestCase());
+        failedScenarios.add(scenarioId);
+        if (result.getStatus() == Status.FAILED && FailureClassifier.isInfrastructureFailure(result.getError())) {
+            infrastructureFailures.add(scenarioId);
+            METRICS.increment("infrastructureFailures");
+            LOG.warn("Scenario {} failed on the infrastructure: {}", scenarioId, result.getError().getMessage());
+        } else {
+            LOG.info("Scenario {} finished with status {}", scenarioId, result.getStatus());
+        }
+    }
+
+    /**
+     * Returns the scenario ID in the format of rerun.txt: the feature path relative to the working directory and the line.
+     *
+     * @param testCase the scenario
+     * @return the scenario ID
+     */
+    private static String scenarioId(TestCase testCase) {
+        URI uri = testCase.getUri();
+        if ("file".equals(uri.getScheme())) {
+            uri = Paths.get("").toAbsolutePath().toUri().relativize(uri);
+        }
+        return uri + ":" + testCase.getLocation().getLine();
+    }
+
+    /**
+     * Returns the scenarios that did not pass, for any reason.
+     *
+     * @return the IDs of the scenarios, in the order they finished
+     */
+    public List<String> getFailedScenarios() {
+        synchronized (failedScenarios) {
+            return new ArrayList<>(failedScenarios);
+        }
+    }
+
+    /**
+     * Returns the scenarios that failed on the infrastructure.
+     *
+     * @return the IDs of the scenarios, in the order they finished
+     */
+    public List<String> getInfrastructureFailures() {
+        synchronized (infrastructureFailures) {
+            return new ArrayList<>(infrastructureFailures);
+        }
+    }
+}
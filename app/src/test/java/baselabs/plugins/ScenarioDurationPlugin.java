@@ -0,0 +1,49 @@
+package baselabs.plugins;
+
+import baselabs.framework.selenium.DriverConfig;
+import baselabs.runner.ScenarioDurations;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestRunFinished;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cucumber plugin that records how long each passed scenario took and merges the durations into the
+ * {@link ScenarioDurations} store at the end of the run, so the next parallel runs can schedule the
+ * longest scenarios first. Failed scenarios are not recorded, as a failure cuts a scenario short or
+ * makes it wait for a timeout.
+ */
+public class ScenarioDurationPlugin implements ConcurrentEventListener {
+    private final String browser = DriverConfig.getInstance().getBrowser();
+    private final Map<String, ScenarioDurations.Sample> measured = new ConcurrentHashMap<>();
+
+    /**
+     * Registers the handlers of the plugin.
+     *
+     * @param publisher the Cucumber event publisher
+     */
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestCaseFinished.class, this::handleTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> ScenarioDurations.record(ScenarioDurations.getStoreFile(), browser, measured));
+    }
+
+    /**
+     * Records the duration of a passed scenario.
+     *
+     * @param event the test case finished event
+     */
+    private void handleTestCaseFinished(TestCaseFinished event) {
+        if (event.getResult().getStatus() != Status.PASSED) {
+            return;
+        }
+        TestCase testCase = event.getTestCase();
+        measured.put(ScenarioDurations.scenarioId(testCase.getUri(), testCase.getLocation().getLine()),
+                new ScenarioDurations.Sample(testCase.getName(), event.getResult().getDuration().toMillis()));
+    }
+}
@@ -0,0 +1,383 @@
+package baselabs.plugins;
+
+import baselabs.utils.LoggerManager;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EmbedEvent;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Result;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestRunStarted;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.cucumber.plugin.event.WriteEvent;
+import org.openqa.selenium.json.Json;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cucumber plugin that streams the run to an append-only NDJSON file as it happens, one event per line,
+ * and keeps an HTML summary of it up to date. Unlike the html, json and pretty plugins it does not hold the
+ * run in memory: attachments are recorded by size only, and the summary only keeps the counts per status
+ * and the latest failures. As a concurrent listener it receives events while the scenarios run, even with
+ * several threads, so {@code events.ndjson} can be tailed and {@code summary.html} refreshes itself until
+ * the run finishes.
+ */
+public class StreamingReportPlugin implements ConcurrentEventListener {
+    private static final LoggerManager LOG = LoggerManager.getInstance();
+    private static final Json JSON = new Json();
+    private static final int MAX_LISTED_FAILURES = 100;
+    private static final int MAX_ERROR_LENGTH = 2000;
+    private static final long SUMMARY_INTERVAL_MILLIS = 2000;
+    private static final int REFRESH_SECONDS = 5;
+    private final Path eventsFile;
+    private final Path summaryFile;
+    private final Object lock = new Object();
+    private final Map<Status, Long> counts = new EnumMap<>(Status.class);
+    private final Deque<Failure> latestFailures = new ArrayDeque<>();
+    private BufferedWriter events;
+    private Instant startedAt = Instant.now();
+    private long lastSummaryMillis;
+
+    /**
+     * Scenario that did not pass, as listed in the summary.
+     *
+     * @param name     the scenario name
+     * @param location the feature URI and line of the scenario
+     * @param status   the status of the scenario
+     * @param error    the first line of the error message
+     */
+    private record Failure(String name, String location, String status, String error) {
+    }
+
+    /**
+     * Constructor to set the directory receiving events.ndjson and summary.html.
+     *
+     * @param outputDir the output directory
+     */
+    public StreamingReportPlugin(File outputDir) {
+        this.eventsFile = outputDir.toPath().resolve("events.ndjson");
+        this.summaryFile = outputDir.toPath().resolve("summary.html");
+    }
+
+    /**
+     * Registers the handlers of the plugin.
+     *
+     * @param publisher the Cucumber event publisher
+     */
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestRunStarted.class, this::handleRunStarted);
+        publisher.registerHandlerFor(TestCaseStarted.class, this::handleTestCaseStarted);
+        publisher.registerHandlerFor(TestStepFinished.class, this::handleStepFinished);
+        publisher.registerHandlerFor(EmbedEvent.class, this::handleEmbed);
+        publisher.registerHandlerFor(WriteEvent.class, this::handleWrite);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::handleTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, this::handleRunFinished);
+    }
+
+    /**
+     * Opens the event stream, replacing the one of a previous run.
+     *
+     * @param event the run started event
+     */
+    private void handleRunStarted(TestRunStarted event) {
+        synchronized (lock) {
+            startedAt = event.getInstant();
+            try {
+                Files.createDirectories(eventsFile.getParent());
+                events = Files.newBufferedWriter(eventsFile, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                LOG.info("Streaming report events to: {}", eventsFile);
+            } catch (IOException e) {
+                LOG.error("Unable to open report event stream: {}", e.getMessage());
+            }
+            append(eventRecord("runStarted", event.getInstant()));
+            writeSummary(false);
+        }
+    }
+
+    /**
+     * Streams the start of a scenario.
+     *
+     * @param event the test case started event
+     */
+    private void handleTestCaseStarted(TestCaseStarted event) {
+        Map<String, Object> record = scenarioRecord("scenarioStarted", event.getInstant(), event.getTestCase());
+        record.put("thread", Thread.currentThread().getName());
+        synchronized (lock) {
+            append(record);
+        }
+    }
+
+    /**
+     * Streams a finished step; hooks are only streamed when they did not pass.
+     *
+     * @param event the step finished event
+     */
+    private void handleStepFinished(TestStepFinished event) {
+        Result result = event.getResult();
+        Map<String, Object> record = eventRecord("stepFinished", event.getInstant());
+        record.put("scenarioId", event.getTestCase().getId().toString());
+        if (event.getTestStep() instanceof PickleStepTestStep step) {
+            record.put("step", step.getStep().getKeyword() + step.getStep().getText());
+            record.put("line", step.getStep().getLine());
+        } else if (event.getTestStep() instanceof HookTestStep hook && result.getStatus() != Status.PASSED) {
+            record.put("hook", hook.getHookType().name());
+        } else {
+            return;
+        }
+        putResult(record, result);
+        synchronized (lock) {
+            append(record);
+        }
+    }
+
+    /**
+     * Streams the media type and size of an attachment, leaving its content out of the stream.
+     *
+     * @param event the embed event
+     */
+    private void handleEmbed(EmbedEvent event) {
+        Map<String, Object> record = eventRecord("attachment", event.getInstant());
+        record.put("scenarioId", event.getTestCase().getId().toString());
+        record.put("mediaType", event.getMediaType());
+        record.put("name", event.getName());
+        record.put("bytes", event.getData().length);
+        synchronized (lock) {
+            append(record);
+        }
+    }
+
+    /**
+     * Streams a text logged by a scenario.
+     *
+     * @param event the write event
+     */
+    private void handleWrite(WriteEvent event) {
+        Map<String, Object> record = eventRecord("log", event.getInstant());
+        record.put("scenarioId", event.getTestCase().getId().toString());
+        record.put("text", truncate(event.getText()));
+        synchronized (lock) {
+            append(record);
+        }
+    }
+
+    /**
+     * Streams the end of a scenario and refreshes the summary when it is due.
+     *
+     * @param event the test case finished event
+     */
+    private void handleTestCaseFinished(TestCaseFinished event) {
+        TestCase testCase = event.getTestCase();
+        Result result = event.getResult();
+        Map<String, Object> record = scenarioRecord("scenarioFinished", event.getInstant(), testCase);
+        putResult(record, result);
+        synchronized (lock) {
+            append(record);
+            counts.merge(result.getStatus(), 1L, Long::sum);
+            if (!result.getStatus().isOk()) {
+                if (latestFailures.size() == MAX_LISTED_FAILURES) {
+                    latestFailures.removeFirst();
+                }
+                String error = result.getError() == null ? "" : firstLine(result.getError().getMessage());
+                latestFailures.addLast(new Failure(testCase.getName(), testCase.getUri() + ":" + testCase.getLocation().getLine(),
+                        result.getStatus().name(), error));
+            }
+            if (System.currentTimeMillis() - lastSummaryMillis >= SUMMARY_INTERVAL_MILLIS) {
+                writeSummary(false);
+            }
+        }
+    }
+
+    /**
+     * Streams the end of the run, writes the final summary and closes the stream.
+     *
+     * @param event the run finished event
+     */
+    private void handleRunFinished(TestRunFinished event) {
+        synchronized (lock) {
+            Map<String, Object> record = eventRecord("runFinished", event.getInstant());
+            record.put("durationMillis", Duration.between(startedAt, event.getInstant()).toMillis());
+            record.put("counts", countsByName());
+            append(record);
+            writeSummary(true);
+            if (events != null) {
+                try {
+                    events.close();
+                } catch (IOException e) {
+                    LOG.error("Unable to close report event stream: {}", e.getMessage());
+                }
+                events = null;
+            }
+            LOG.info("Wrote streaming report summary to: {}", summaryFile);
+        }
+    }
+
+    /**
+     * Creates an event record.
+     *
+     * @param type    the event type
+     * @param instant when the event happened
+     * @return the record
+     */
+    private static Map<String, Object> eventRecord(String type, Instant instant) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("event", type);
+        record.put("timestamp", instant.toString());
+        return record;
+    }
+
+    /**
+     * Creates an event record describing a scenario.
+     *
+     * @param type     the event type
+     * @param instant  when the event happened
+     * @param testCase the scenario
+     * @return the record
+     */
+    private static Map<String, Object> scenarioRecord(String type, Instant instant, TestCase testCase) {
+        Map<String, Object> record = eventRecord(type, instant);
+        record.put("scenarioId", testCase.getId().toString());
+        record.put("name", testCase.getName());
+        record.put("uri", testCase.getUri().toString());
+        record.put("line", testCase.getLocation().getLine());
+        return record;
+    }
+
+    /**
+     * Adds the status, duration and error of a result to a record.
+     *
+     * @param record the record
+     * @param result the result
+     */
+    private static void putResult(Map<String, Object> record, Result result) {
+        record.put("status", result.getStatus().name());
+        record.put("durationMillis", result.getDuration().toMillis());
+        if (result.getError() != null) {
+            record.put("error", truncate(String.valueOf(result.getError())));
+        }
+    }
+
+    /**
+     * Appends a record to the stream and flushes it so readers see it immediately; the caller holds the lock.
+     *
+     * @param record the record
+     */
+    private void append(Map<String, Object> record) {
+        if (events == null) {
+            return;
+        }
+        try {
+            events.write(JSON.toJson(record).replace("\n", "").replace("\r", ""));
+            events.newLine();
+            events.flush();
+        } catch (IOException e) {
+            LOG.error("Unable to stream report event: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the HTML summary with the current counts and latest failures; the caller holds the lock.
+     * While the run is in progress the page reloads itself every few seconds.
+     *
+     * @param finished whether the run has finished
+     */
+    private void writeSummary(boolean finished) {
+        lastSummaryMillis = System.currentTimeMillis();
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+        long elapsedSeconds = Duration.between(startedAt, Instant.now()).toSeconds();
+        StringBuilder html = new StringBuilder("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>Cucumber run</title>");
+        if (!finished) {
+            html.append("<meta http-equiv=\"refresh\" content=\"").append(REFRESH_SECONDS).append("\">");
+        }
+        html.append("<style>body{font-family:sans-serif}td,th{padding:4px 8px;text-align:left;border-bottom:1px solid #ddd}</style></head><body>")
+                .append("<h1>Cucumber run ").append(finished ? "finished" : "in progress").append("</h1>")
+                .append("<p>").append(total).append(" scenarios in ").append(elapsedSeconds).append(" s</p><table><tr>");
+        countsByName().forEach((status, count) -> html.append("<th>").append(status).append("</th>"));
+        html.append("</tr><tr>");
+        countsByName().forEach((status, count) -> html.append("<td>").append(count).append("</td>"));
+        html.append("</tr></table><h2>Latest failures</h2><table><tr><th>Scenario</th><th>Location</th><th>Status</th><th>Error</th></tr>");
+        for (Failure failure : latestFailures) {
+            html.append("<tr><td>").append(escape(failure.name())).append("</td><td>").append(escape(failure.location()))
+                    .append("</td><td>").append(failure.status()).append("</td><td>").append(escape(failure.error())).append("</td></tr>");
+        }
+        html.append("</table></body></html>");
+        Path temporary = summaryFile.resolveSibling(summaryFile.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(summaryFile.getParent());
+            Files.writeString(temporary, html, StandardCharsets.UTF_8);
+            try {
+                Files.move(temporary, summaryFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, summaryFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            LOG.error("Unable to write report summary: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the number of finished scenarios per status; the caller holds the lock.
+     *
+     * @return the counts, keyed by status name
+     */
+    private Map<String, Long> countsByName() {
+        Map<String, Long> byName = new LinkedHashMap<>();
+        counts.forEach((status, count) -> byName.put(status.name(), count));
+        return byName;
+    }
+
+    /**
+     * Truncates a text so that a single event cannot grow the stream unbounded.
+     *
+     * @param text the text
+     * @return the text, cut to the maximum error length
+     */
+    private static String truncate(String text) {
+        return text.length() > MAX_ERROR_LENGTH ? text.substring(0, MAX_ERROR_LENGTH) + "..." : text;
+    }
+
+    /**
+     * Returns the first line of a message.
+     *
+     * @param message the message, possibly null
+     * @return the first line, or an empty string
+     */
+    private static String firstLine(String message) {
+        if (message == null) {
+            return "";
+        }
+        int end = message.indexOf('\n');
+        return truncate(end < 0 ? message : message.substring(0, end));
+    }
+
+    /**
+     * Escapes a text for HTML.
+     *
+     * @param text the text
+     * @return the escaped text
+     */
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
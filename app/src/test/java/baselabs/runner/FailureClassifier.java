@@ -0,0 +1,105 @@
+package baselabs.runner;
+
+import baselabs.framework.selenium.DriverManager;
+import baselabs.framework.selenium.DriverPool;
+import baselabs.framework.selenium.GridDispatcher;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+import org.openqa.selenium.remote.http.ConnectionFailedException;
+
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.net.http.HttpConnectTimeoutException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tells infrastructure failures apart from genuine test failures.
+ * A failure is caused by the infrastructure when the browser session died or could not be created, when
+ * the driver pool or the grid could not provide a session in time, or when the WebDriver client lost its connection
+ * to the driver or the grid. Connection errors count only under a WebDriver exception, so a failing call of the test
+ * to another service is not mistaken for one. Assertion errors, element lookups and wait timeouts of page objects
+ * are genuine failures.
+ */
+public final class FailureClassifier {
+    private static final Set<String> DRIVER_SETUP_CLASSES = Set.of(
+            DriverPool.class.getName(), DriverManager.class.getName(), GridDispatcher.class.getName());
+    private static final List<String> SESSION_LOST_MARKERS = List.of(
+            "not reachable", "disconnected:", "session deleted", "Failed to decode response from marionette",
+            "Tried to run command without establishing a connection");
+    private static final List<String> CONNECTION_LOST_MARKERS = List.of("Connection reset", "Broken pipe");
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private FailureClassifier() {
+    }
+
+    /**
+     * Returns whether a scenario failure was caused by the infrastructure rather than by the application under test.
+     *
+     * @param error the error the scenario failed with
+     * @return true if the failure is worth retrying on a fresh session, false otherwise
+     */
+    public static boolean isInfrastructureFailure(Throwable error) {
+        if (error == null || error instanceof AssertionError) {
+            return false;
+        }
+        Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        boolean underWebDriver = false;
+        for (Throwable cause = error; cause != null && seen.add(cause); cause = cause.getCause()) {
+            if (cause instanceof NoSuchSessionException || cause instanceof SessionNotCreatedException
+                    || cause instanceof UnreachableBrowserException || cause instanceof ConnectionFailedException) {
+                return true;
+            }
+            if (cause instanceof WebDriverException && (isThrownByDriverSetup(cause) || hasSessionLostMarker(cause))) {
+                return true;
+            }
+            if (underWebDriver && isTransportFailure(cause)) {
+                return true;
+            }
+            underWebDriver |= cause instanceof WebDriverException;
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether an exception reports that the connection of the WebDriver client was refused, reset or timed out.
+     *
+     * @param error the exception
+     * @return true for a refused or timed out connection, or a socket error reporting a reset or broken connection
+     */
+    private static boolean isTransportFailure(Throwable error) {
+        if (error instanceof ConnectException || error instanceof HttpConnectTimeoutException) {
+            return true;
+        }
+        String message = error.getMessage();
+        return error instanceof SocketException && message != null && CONNECTION_LOST_MARKERS.stream().anyMatch(message::contains);
+    }
+
+    /**
+     * Returns whether an exception was thrown by the classes that start and lease sessions.
+     *
+     * @param error the exception
+     * @return true if the top stack frame belongs to the driver pool, the driver manager or the grid dispatcher
+     */
+    private static boolean isThrownByDriverSetup(Throwable error) {
+        StackTraceElement[] stackTrace = error.getStackTrace();
+        return stackTrace.length > 0 && DRIVER_SETUP_CLASSES.contains(stackTrace[0].getClassName());
+    }
+
+    /**
+     * Returns whether the message of an exception reports a lost browser connection.
+     *
+     * @param error the exception
+     * @return true if the message contains one of the known session lost messages
+     */
+    private static boolean hasSessionLostMarker(Throwable error) {
+        String message = error.getMessage();
+        return message != null && SESSION_LOST_MARKERS.stream().anyMatch(message::contains);
+    }
+}
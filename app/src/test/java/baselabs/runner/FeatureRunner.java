@@ -0,0 +1,205 @@
+package baselabs.runner;
+
+import baselabs.framework.selenium.DriverConfig;
+import baselabs.framework.selenium.DriverPool;
+import baselabs.utils.LoggerManager;
+import io.cucumber.core.feature.FeatureParser;
+import io.cucumber.core.gherkin.Feature;
+import io.cucumber.core.options.CommandlineOptionsParser;
+import io.cucumber.core.options.CucumberProperties;
+import io.cucumber.core.options.CucumberPropertiesParser;
+import io.cucumber.core.options.RuntimeOptions;
+import io.cucumber.core.options.RuntimeOptionsBuilder;
+import io.cucumber.core.runtime.FeaturePathFeatureSupplier;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs the features once per browser of the matrix, concurrently and in a single JVM.
+ * The features are parsed once and shared by one Cucumber runtime per browser. Each runtime runs on its
+ * own thread with that thread's browser overridden in {@link DriverConfig}, so its scenarios lease
+ * sessions from the pool of that browser. The outputs of the runtimes are tagged with their browser
+ * and merged into a single report layout.
+ */
+public final class FeatureRunner {
+    private static final LoggerManager LOG = LoggerManager.getInstance();
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private FeatureRunner() {
+    }
+
+    /**
+     * Entry point used by the executeFeatures Gradle task.
+     * Arguments are the target directory, the reports directory and the Cucumber options shared by every
+     * browser (glue, tags, threads and feature paths); the browsers are read from the {@code browsers} setting.
+     *
+     * @param args the target directory, the reports directory and the Cucumber options
+     * @throws IOException if a report cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: FeatureRunner <targetDir> <reportsDir> [cucumber options]...");
+        }
+        List<String> browsers = DriverConfig.getInstance().getBrowsers();
+        if (browsers.isEmpty()) {
+            throw new IllegalArgumentException("No browsers configured, set -Dbrowsers=chrome,edge,firefox");
+        }
+        byte exitStatus = run(browsers, Paths.get(args[0]), Paths.get(args[1]), Arrays.asList(args).subList(2, args.length));
+        System.exit(exitStatus);
+    }
+
+    /**
+     * Runs the features on every browser and merges the reports.
+     *
+     * @param browsers     the browsers of the matrix
+     * @param targetDir    the directory receiving the per-browser and merged cucumber.json and rerun.txt
+     * @param reportsDir   the directory receiving the pretty HTML reports
+     * @param cucumberArgs the Cucumber options shared by every browser
+     * @return zero if every browser passed, the highest exit status of the browser runs otherwise
+     * @throws IOException if a report cannot be read or written
+     */
+    public static byte run(List<String> browsers, Path targetDir, Path reportsDir, List<String> cucumberArgs) throws IOException {
+        List<Feature> features = parseFeatures(cucumberArgs);
+        LOG.info("Parsed {} features once for browsers: {}", features.size(), browsers);
+        ExecutorService executor = Executors.newFixedThreadPool(browsers.size());
+        Map<String, Future<Byte>> results = new LinkedHashMap<>();
+        for (String browser : browsers) {
+            Path runDir = targetDir.resolve("browsers").resolve(browser);
+            results.put(browser, executor.submit(() -> runBrowser(browser, runDir, features, cucumberArgs)));
+        }
+        executor.shutdown();
+        byte exitStatus = 0;
+        List<Path> runDirs = new ArrayList<>();
+        for (Map.Entry<String, Future<Byte>> result : results.entrySet()) {
+            Path runDir = targetDir.resolve("browsers").resolve(result.getKey());
+            runDirs.add(runDir);
+            byte browserStatus = awaitStatus(result.getKey(), result.getValue());
+            LOG.info("Browser {} finished with exit status: {}", result.getKey(), browserStatus);
+            ReportMerger.tagScenarios(runDir.resolve("cucumber.json"), result.getKey());
+            exitStatus = (byte) Math.max(exitStatus, browserStatus);
+        }
+        DriverPool.shutdownAll();
+        ReportMerger.merge(runDirs, targetDir, reportsDir);
+        return exitStatus;
+    }
+
+    /**
+     * Runs the shared features on one browser, on the calling thread.
+     *
+     * @param browser      the browser to run on
+     * @param runDir       the directory receiving the cucumber.json, rerun.txt and command metrics of the run
+     * @param features     the parsed features
+     * @param cucumberArgs the Cucumber options shared by every browser
+     * @return the exit status of the run, after retrying the scenarios that failed on the infrastructure
+     * @throws IOException if a report cannot be read or written
+     */
+    private static byte runBrowser(String browser, Path runDir, List<Feature> features, List<String> cucumberArgs) throws IOException {
+        DriverConfig.getInstance().setThreadBrowser(browser);
+        List<String> browserArgs = new ArrayList<>(List.of(
+                "--plugin", ScenarioRetryRunner.isStreamingReportMode()
+                        ? "baselabs.plugins.StreamingReportPlugin:" + runDir.resolve("stream")
+                        : "html:reports/cucumber-reports/cucumber-reports-" + browser + ".html",
+                "--plugin", "json:" + runDir.resolve("cucumber.json"),
+                "--plugin", "rerun:" + runDir.resolve("rerun.txt"),
+                "--plugin", "baselabs.plugins.DriverWarmupPlugin",
+                "--plugin", "baselabs.plugins.ScenarioDurationPlugin",
+                "--plugin", "baselabs.plugins.CommandMetricsPlugin:" + runDir.resolve("command-metrics.json")));
+        browserArgs.addAll(cucumberArgs);
+        LOG.info("Running features on browser: {}", browser);
+        return ScenarioRetryRunner.run(runDir, browserArgs, features);
+    }
+
+    /**
+     * Parses the features selected by the Cucumber options.
+     *
+     * @param cucumberArgs the Cucumber options
+     * @return the parsed features
+     */
+    static List<Feature> parseFeatures(List<String> cucumberArgs) {
+        RuntimeOptions runtimeOptions = parseOptions(cucumberArgs);
+        FeatureParser parser = new FeatureParser(UUID::randomUUID);
+        return new FeaturePathFeatureSupplier(FeatureRunner.class::getClassLoader, runtimeOptions, parser).get();
+    }
+
+    /**
+     * Builds the runtime options the same way the Cucumber CLI does: cucumber.properties, then environment
+     * variables, then system properties, then the command line options. Parallel runs without an explicit
+     * {@code --order} dispatch the longest scenarios first, see {@link ScenarioDurations}.
+     *
+     * @param cucumberArgs the command line options
+     * @return the runtime options
+     */
+    static RuntimeOptions parseOptions(List<String> cucumberArgs) {
+        RuntimeOptions propertiesFileOptions = new CucumberPropertiesParser()
+                .parse(CucumberProperties.fromPropertiesFile())
+                .build();
+        RuntimeOptions environmentOptions = new CucumberPropertiesParser()
+                .parse(CucumberProperties.fromEnvironment())
+                .build(propertiesFileOptions);
+        RuntimeOptions systemOptions = new CucumberPropertiesParser()
+                .parse(CucumberProperties.fromSystemProperties())
+                .build(environmentOptions);
+        RuntimeOptionsBuilder commandlineOptions = new CommandlineOptionsParser(System.out)
+                .parse(cucumberArgs.toArray(new String[0]))
+                .addDefaultGlueIfAbsent()
+                .addDefaultFeaturePathIfAbsent();
+        int threads = threadsOption(cucumberArgs);
+        if (threads > 1 && !cucumberArgs.contains("--order") && ScenarioDurations.isLongestFirst()) {
+            ScenarioDurations durations = ScenarioDurations.load(ScenarioDurations.getStoreFile());
+            commandlineOptions.setPickleOrder(durations.longestFirst(DriverConfig.getInstance().getBrowser(), threads));
+        }
+        return commandlineOptions.build(systemOptions);
+    }
+
+    /**
+     * Returns the number of threads set with the {@code --threads} option.
+     *
+     * @param cucumberArgs the command line options
+     * @return the number of threads, or 1 if the option is not set or malformed
+     */
+    private static int threadsOption(List<String> cucumberArgs) {
+        int index = cucumberArgs.indexOf("--threads");
+        if (index < 0 || index + 1 >= cucumberArgs.size()) {
+            return 1;
+        }
+        try {
+            return Integer.parseInt(cucumberArgs.get(index + 1));
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    /**
+     * Waits for a browser run to finish.
+     *
+     * @param browser the browser of the run
+     * @param result  the pending exit status of the run
+     * @return the exit status, or 1 if the run failed with an exception
+     */
+    private static byte awaitStatus(String browser, Future<Byte> result) {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            LOG.error("Run on browser {} failed: {}", browser, e.getCause().getMessage());
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.error("Interrupted while waiting for browser: {}", browser);
+            return 1;
+        }
+    }
+}
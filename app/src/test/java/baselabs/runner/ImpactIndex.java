@@ -0,0 +1,527 @@
+package baselabs.runner;
+
+import baselabs.ui.LoadCondition;
+import baselabs.utils.LoggerManager;
+import io.cucumber.core.gherkin.Feature;
+import io.cucumber.core.gherkin.Pickle;
+import io.cucumber.core.gherkin.Step;
+import io.cucumber.cucumberexpressions.Expression;
+import io.cucumber.cucumberexpressions.ExpressionFactory;
+import io.cucumber.cucumberexpressions.ParameterTypeRegistry;
+import io.cucumber.java.StepDefinitionAnnotation;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.How;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Change-impact index of the scenarios. Each scenario of the features is mapped to the step definitions of
+ * {@code baselabs.steps} its steps match and, through the fields and calls of those step definitions, to the
+ * page objects of {@code baselabs.ui.pages} and the locators of the page methods they call. The source files
+ * behind a scenario (its feature, step definition classes and page objects) are listed in the index, so the
+ * scenarios affected by a set of changed files can be selected without running the others.
+ * Changed files the index does not cover, such as the base page, the framework or the build, affect every
+ * scenario; documentation and files outside the project that are not build files affect none.
+ */
+public final class ImpactIndex {
+    private static final LoggerManager LOG = LoggerManager.getInstance();
+    private static final Json JSON = new Json();
+    private static final String FEATURES_DIR = "src/test/resources/features";
+    private static final Path TEST_SOURCES = Paths.get("src/test/java");
+    private static final Path MAIN_SOURCES = Paths.get("src/main/java");
+    private static final String STEPS_PACKAGE = "baselabs.steps";
+    private static final String PAGES_PACKAGE = "baselabs.ui.pages";
+    private static final Pattern MEMBER_CALL = Pattern.compile("\\b(\\w+)\\s*\\.\\s*(\\w+)\\s*\\(");
+    private static final Pattern LOCAL_CALL = Pattern.compile("(?<![\\w.])(\\w+)\\s*\\(");
+    private static final Pattern CONSTRUCTOR_CALL = Pattern.compile("\\bnew\\s+(\\w+)\\s*\\(");
+    private static final Pattern BY_CONSTANT = Pattern.compile("\\bBy\\s+(\\w+)\\s*=\\s*(By\\.\\w+\\s*\\([^;]*\\))\\s*;");
+    private static final Set<String> BUILD_FILES = Set.of("build.gradle", "settings.gradle", "gradle.properties");
+
+    /**
+     * Page object of the index.
+     *
+     * @param name         the simple class name
+     * @param source       the source file, relative to the project directory
+     * @param code         the source code
+     * @param methods      the names of the methods the class declares
+     * @param locators     the locators of the page, by field name
+     * @param loadLocators the fields checked when the page is constructed, see {@link LoadCondition}
+     */
+    private record Page(String name, String source, String code, Set<String> methods, Map<String, String> locators, Set<String> loadLocators) {
+    }
+
+    /**
+     * Step definition of the index.
+     *
+     * @param name       the class and method name
+     * @param expression the expression the step text has to match
+     * @param source     the source file, relative to the project directory
+     * @param pages      the page objects the step definition uses
+     * @param locators   the locators the step definition touches, as {@code Page.field: locator}
+     */
+    private record StepDefinition(String name, Expression expression, String source, Set<Page> pages, Set<String> locators) {
+    }
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private ImpactIndex() {
+    }
+
+    /**
+     * Entry point used by the impactIndex and executeFeatures Gradle tasks.
+     * Arguments are the index file to write, then optionally the file receiving the affected scenario IDs
+     * (one per line, in the format of rerun.txt) followed by the changed files.
+     *
+     * @param args the index file, the selection file and the changed files
+     * @throws IOException if a source cannot be read or the index cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            throw new IllegalArgumentException("Usage: ImpactIndex <indexFile> [<selectionFile> [changed files]...]");
+        }
+        List<Map<String, Object>> scenarios = buildIndex();
+        Path indexFile = Paths.get(args[0]);
+        Files.createDirectories(indexFile.toAbsolutePath().getParent());
+        Files.writeString(indexFile, JSON.toJson(Map.of("scenarios", scenarios)), StandardCharsets.UTF_8);
+        LOG.info("Wrote impact index of {} scenarios to: {}", scenarios.size(), indexFile);
+        if (args.length > 1) {
+            Set<String> selected = select(scenarios, Arrays.asList(args).subList(2, args.length));
+            Path selectionFile = Paths.get(args[1]);
+            Files.createDirectories(selectionFile.toAbsolutePath().getParent());
+            Files.write(selectionFile, selected, StandardCharsets.UTF_8);
+            LOG.info("Selected {} of {} scenarios affected by {} changed files", selected.size(), scenarios.size(), args.length - 2);
+        }
+    }
+
+    /**
+     * Builds the index of every scenario of the features.
+     *
+     * @return one entry per scenario and example row, with its ID, name, step definitions, pages, locators and sources
+     * @throws IOException if a source cannot be read
+     */
+    static List<Map<String, Object>> buildIndex() throws IOException {
+        Map<Class<?>, Page> pages = loadPages();
+        List<StepDefinition> stepDefinitions = loadStepDefinitions(pages);
+        List<Map<String, Object>> scenarios = new ArrayList<>();
+        for (Feature feature : FeatureRunner.parseFeatures(List.of(FEATURES_DIR))) {
+            for (Pickle pickle : feature.getPickles()) {
+                String featurePath = relativePath(pickle.getUri());
+                Set<String> definitions = new LinkedHashSet<>();
+                Set<String> pageNames = new LinkedHashSet<>();
+                Set<String> locators = new LinkedHashSet<>();
+                Set<String> sources = new LinkedHashSet<>(List.of(featurePath));
+                List<String> undefinedSteps = new ArrayList<>();
+                for (Step step : pickle.getSteps()) {
+                    StepDefinition definition = stepDefinitions.stream()
+                            .filter(candidate -> candidate.expression().match(step.getText()) != null)
+                            .findFirst()
+                            .orElse(null);
+                    if (definition == null) {
+                        undefinedSteps.add(step.getText());
+                        continue;
+                    }
+                    definitions.add(definition.name());
+                    sources.add(definition.source());
+                    locators.addAll(definition.locators());
+                    for (Page page : definition.pages()) {
+                        pageNames.add(page.name());
+                        sources.add(page.source());
+                    }
+                }
+                Map<String, Object> scenario = new LinkedHashMap<>();
+                scenario.put("id", featurePath + ":" + pickle.getLocation().getLine());
+                scenario.put("name", pickle.getName());
+                scenario.put("stepDefinitions", new ArrayList<>(definitions));
+                scenario.put("pages", new ArrayList<>(pageNames));
+                scenario.put("locators", new ArrayList<>(locators));
+                scenario.put("sources", new ArrayList<>(sources));
+                scenario.put("undefinedSteps", undefinedSteps);
+                scenarios.add(scenario);
+            }
+        }
+        return scenarios;
+    }
+
+    /**
+     * Selects the scenarios affected by the changed files. A file the index does not cover selects every
+     * scenario, except for documentation and for files outside the project that are not build files.
+     *
+     * @param scenarios    the index
+     * @param changedFiles the changed files, absolute or relative to the project directory
+     * @return the IDs of the affected scenarios, in index order
+     * @throws IOException if the indexed source directories cannot be listed
+     */
+    @SuppressWarnings("unchecked")
+    static Set<String> select(List<Map<String, Object>> scenarios, List<String> changedFiles) throws IOException {
+        Set<String> indexedSources = new HashSet<>();
+        scenarios.forEach(scenario -> indexedSources.addAll((List<String>) scenario.get("sources")));
+        Stream.of(sourceFiles(Paths.get(FEATURES_DIR), ".feature"), sourceFiles(packageDir(TEST_SOURCES, STEPS_PACKAGE), ".java"),
+                sourceFiles(packageDir(MAIN_SOURCES, PAGES_PACKAGE), ".java")).flatMap(List::stream).forEach(indexedSources::add);
+        Set<String> changedSources = new HashSet<>();
+        boolean selectAll = false;
+        for (String changedFile : changedFiles) {
+            String path = relativePath(Paths.get(changedFile).toAbsolutePath().toUri());
+            if (indexedSources.contains(path)) {
+                changedSources.add(path);
+            } else if (isIrrelevant(path)) {
+                LOG.debug("Ignoring change outside the scenarios: {}", path);
+            } else {
+                LOG.info("{} is not covered by the impact index, every scenario is affected", path);
+                selectAll = true;
+            }
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        for (Map<String, Object> scenario : scenarios) {
+            List<String> sources = (List<String>) scenario.get("sources");
+            if (selectAll || sources.stream().anyMatch(changedSources::contains)) {
+                selected.add((String) scenario.get("id"));
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Returns whether a changed file cannot affect any scenario: documentation, removed feature files and
+     * files outside the project other than the Gradle build files.
+     *
+     * @param path the changed file, relative to the project directory
+     * @return true if the change can be ignored, false otherwise
+     */
+    private static boolean isIrrelevant(String path) {
+        if (path.endsWith(".md") || (path.startsWith(FEATURES_DIR + "/") && path.endsWith(".feature"))) {
+            return true;
+        }
+        String fileName = path.substring(path.lastIndexOf('/') + 1);
+        return path.startsWith("../") && !BUILD_FILES.contains(fileName) && !path.startsWith("../gradle/");
+    }
+
+    /**
+     * Loads the page objects with their locators: the {@link FindBy} fields and the {@code By} constants.
+     *
+     * @return the page objects, by class
+     * @throws IOException if a source cannot be read
+     */
+    private static Map<Class<?>, Page> loadPages() throws IOException {
+        Map<Class<?>, Page> pages = new LinkedHashMap<>();
+        for (String source : sourceFiles(packageDir(MAIN_SOURCES, PAGES_PACKAGE), ".java")) {
+            Class<?> type = loadClass(PAGES_PACKAGE, source);
+            String code = Files.readString(Paths.get(source), StandardCharsets.UTF_8);
+            Map<String, String> locators = new TreeMap<>();
+            Set<String> loadLocators = new LinkedHashSet<>();
+            for (Field field : type.getDeclaredFields()) {
+                FindBy findBy = field.getAnnotation(FindBy.class);
+                if (findBy != null) {
+                    locators.put(field.getName(), describe(findBy, field.getName()));
+                    if (field.isAnnotationPresent(LoadCondition.class)) {
+                        loadLocators.add(field.getName());
+                    }
+                }
+            }
+            Matcher constant = BY_CONSTANT.matcher(code);
+            while (constant.find()) {
+                locators.put(constant.group(1), constant.group(2).replaceAll("\\s+", " "));
+            }
+            Set<String> methods = Arrays.stream(type.getDeclaredMethods()).map(Method::getName).collect(Collectors.toSet());
+            pages.put(type, new Page(type.getSimpleName(), source, code, methods, locators, loadLocators));
+        }
+        return pages;
+    }
+
+    /**
+     * Loads the step definitions and traces the page objects and locators each one uses.
+     *
+     * @param pages the page objects, by class
+     * @return the step definitions
+     * @throws IOException if a source cannot be read
+     */
+    private static List<StepDefinition> loadStepDefinitions(Map<Class<?>, Page> pages) throws IOException {
+        ExpressionFactory expressionFactory = new ExpressionFactory(new ParameterTypeRegistry(Locale.ENGLISH));
+        List<StepDefinition> stepDefinitions = new ArrayList<>();
+        for (String source : sourceFiles(packageDir(TEST_SOURCES, STEPS_PACKAGE), ".java")) {
+            Class<?> glue = loadClass(STEPS_PACKAGE, source);
+            String code = Files.readString(Paths.get(source), StandardCharsets.UTF_8);
+            Map<String, Class<?>> fields = new LinkedHashMap<>();
+            for (Field field : glue.getDeclaredFields()) {
+                fields.put(field.getName(), field.getType());
+            }
+            for (Method method : glue.getDeclaredMethods()) {
+                for (Annotation annotation : method.getAnnotations()) {
+                    if (!annotation.annotationType().isAnnotationPresent(StepDefinitionAnnotation.class)) {
+                        continue;
+                    }
+                    Set<Page> usedPages = new LinkedHashSet<>();
+                    Set<String> locators = new LinkedHashSet<>();
+                    traceStep(methodBody(code, method.getName()), fields, pages, usedPages, locators);
+                    stepDefinitions.add(new StepDefinition(glue.getSimpleName() + "." + method.getName(),
+                            expressionFactory.createExpression(stepExpression(annotation)), source, usedPages, locators));
+                }
+            }
+        }
+        return stepDefinitions;
+    }
+
+    /**
+     * Traces the page objects and locators a step definition uses: pages it constructs, page fields it calls
+     * methods on, with the locators of those methods, and pages returned by the methods it calls on its fields.
+     * Every page used also contributes the locators checked when it is constructed.
+     *
+     * @param body      the body of the step definition
+     * @param fields    the field types of the step definition class, by name
+     * @param pages     the page objects, by class
+     * @param usedPages receives the pages the step definition uses
+     * @param locators  receives the locators the step definition touches
+     */
+    private static void traceStep(String body, Map<String, Class<?>> fields, Map<Class<?>, Page> pages, Set<Page> usedPages, Set<String> locators) {
+        Map<String, Page> pagesByName = new LinkedHashMap<>();
+        pages.values().forEach(page -> pagesByName.put(page.name(), page));
+        Set<Page> touched = new LinkedHashSet<>();
+        Matcher constructorCall = CONSTRUCTOR_CALL.matcher(body);
+        while (constructorCall.find()) {
+            if (pagesByName.containsKey(constructorCall.group(1))) {
+                touched.add(pagesByName.get(constructorCall.group(1)));
+            }
+        }
+        Matcher memberCall = MEMBER_CALL.matcher(body);
+        while (memberCall.find()) {
+            Class<?> receiverType = fields.get(memberCall.group(1));
+            if (receiverType == null) {
+                continue;
+            }
+            String methodName = memberCall.group(2);
+            Page receiver = pages.get(receiverType);
+            if (receiver != null) {
+                touched.add(receiver);
+                for (String locator : locatorsUsedBy(receiver, methodName, new HashSet<>())) {
+                    locators.add(receiver.name() + "." + locator + ": " + receiver.locators().get(locator));
+                }
+            }
+            for (Method method : receiverType.getMethods()) {
+                if (method.getName().equals(methodName) && pages.containsKey(method.getReturnType())) {
+                    touched.add(pages.get(method.getReturnType()));
+                }
+            }
+        }
+        for (Page page : touched) {
+            usedPages.add(page);
+            for (String locator : page.loadLocators()) {
+                locators.add(page.name() + "." + locator + ": " + page.locators().get(locator));
+            }
+        }
+    }
+
+    /**
+     * Returns the locators a page method refers to, directly or through the methods of the page it calls.
+     *
+     * @param page       the page object
+     * @param methodName the method name
+     * @param visited    the methods already traced
+     * @return the names of the locator fields the method uses
+     */
+    private static Set<String> locatorsUsedBy(Page page, String methodName, Set<String> visited) {
+        Set<String> used = new LinkedHashSet<>();
+        if (!page.methods().contains(methodName) || !visited.add(methodName)) {
+            return used;
+        }
+        String body = methodBody(page.code(), methodName);
+        for (String locator : page.locators().keySet()) {
+            if (Pattern.compile("\\b" + Pattern.quote(locator) + "\\b").matcher(body).find()) {
+                used.add(locator);
+            }
+        }
+        Matcher localCall = LOCAL_CALL.matcher(body);
+        while (localCall.find()) {
+            used.addAll(locatorsUsedBy(page, localCall.group(1), visited));
+        }
+        return used;
+    }
+
+    /**
+     * Returns the body of the first declaration of a method in a source file, braces included.
+     *
+     * @param code       the source code
+     * @param methodName the method name
+     * @return the body, or an empty string if the method is not declared in the source
+     */
+    static String methodBody(String code, String methodName) {
+        Matcher declaration = Pattern.compile("[\\w>\\]]\\s+" + Pattern.quote(methodName) + "\\s*\\(").matcher(code);
+        while (declaration.find()) {
+            int index = skipBalanced(code, declaration.end() - 1, '(', ')');
+            while (index < code.length() && code.charAt(index) != '{' && code.charAt(index) != ';') {
+                index++;
+            }
+            if (index < code.length() && code.charAt(index) == '{') {
+                return code.substring(index, skipBalanced(code, index, '{', '}'));
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Returns the index after the bracket closing the one at the start index, skipping string and character literals.
+     *
+     * @param code  the source code
+     * @param start the index of the opening bracket
+     * @param open  the opening bracket
+     * @param close the closing bracket
+     * @return the index after the closing bracket, or the length of the code if it is not closed
+     */
+    private static int skipBalanced(String code, int start, char open, char close) {
+        int depth = 0;
+        for (int index = start; index < code.length(); index++) {
+            char current = code.charAt(index);
+            if (current == '"' || current == '\'') {
+                index = skipLiteral(code, index);
+            } else if (current == open) {
+                depth++;
+            } else if (current == close) {
+                depth--;
+                if (depth == 0) {
+                    return index + 1;
+                }
+            }
+        }
+        return code.length();
+    }
+
+    /**
+     * Returns the index of the quote closing the string or character literal that starts at the given index.
+     *
+     * @param code  the source code
+     * @param start the index of the opening quote
+     * @return the index of the closing quote
+     */
+    private static int skipLiteral(String code, int start) {
+        char quote = code.charAt(start);
+        int index = start + 1;
+        while (index < code.length() && code.charAt(index) != quote) {
+            index += code.charAt(index) == '\\' ? 2 : 1;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the expression of a step definition annotation such as {@code @Given}.
+     *
+     * @param annotation the step definition annotation
+     * @return the Cucumber expression or regular expression of the step
+     */
+    private static String stepExpression(Annotation annotation) {
+        try {
+            return (String) annotation.annotationType().getMethod("value").invoke(annotation);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to read the expression of " + annotation, e);
+        }
+    }
+
+    /**
+     * Describes the locator of a {@link FindBy} annotation.
+     *
+     * @param findBy    the annotation
+     * @param fieldName the name of the annotated field, the id or name looked up when no locator is set
+     * @return the locator, as {@code strategy=value}
+     */
+    private static String describe(FindBy findBy, String fieldName) {
+        if (findBy.how() != How.UNSET) {
+            return findBy.how().name().toLowerCase(Locale.ROOT) + "=" + findBy.using();
+        }
+        Map<String, String> strategies = new LinkedHashMap<>();
+        strategies.put("id", findBy.id());
+        strategies.put("css", findBy.css());
+        strategies.put("xpath", findBy.xpath());
+        strategies.put("name", findBy.name());
+        strategies.put("className", findBy.className());
+        strategies.put("tagName", findBy.tagName());
+        strategies.put("linkText", findBy.linkText());
+        strategies.put("partialLinkText", findBy.partialLinkText());
+        return strategies.entrySet().stream()
+                .filter(strategy -> !strategy.getValue().isEmpty())
+                .map(strategy -> strategy.getKey() + "=" + strategy.getValue())
+                .findFirst()
+                .orElse("idOrName=" + fieldName);
+    }
+
+    /**
+     * Loads a class from its source file without initializing it.
+     *
+     * @param packageName the package of the class
+     * @param source      the source file
+     * @return the class
+     */
+    private static Class<?> loadClass(String packageName, String source) {
+        String simpleName = source.substring(source.lastIndexOf('/') + 1, source.length() - ".java".length());
+        try {
+            return Class.forName(packageName + "." + simpleName, false, ImpactIndex.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Class of " + source + " is not compiled", e);
+        }
+    }
+
+    /**
+     * Returns the directory of a package in a source root.
+     *
+     * @param sourceRoot  the source root
+     * @param packageName the package
+     * @return the package directory
+     */
+    private static Path packageDir(Path sourceRoot, String packageName) {
+        return sourceRoot.resolve(packageName.replace('.', '/'));
+    }
+
+    /**
+     * Lists the files with an extension under a directory.
+     *
+     * @param directory the directory
+     * @param extension the file extension
+     * @return the files, relative to the project directory and sorted
+     * @throws IOException if the directory cannot be listed
+     */
+    private static List<String> sourceFiles(Path directory, String extension) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(file -> file.toString().endsWith(extension))
+                    .map(file -> relativePath(file.toAbsolutePath().toUri()))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Returns a file path relative to the working directory, the project directory, with forward slashes.
+     *
+     * @param uri the file URI
+     * @return the relative path, the format of the scenario IDs of rerun.txt
+     */
+    private static String relativePath(URI uri) {
+        if (!"file".equals(uri.getScheme())) {
+            return uri.toString();
+        }
+        Path workingDir = Paths.get("").toAbsolutePath();
+        return workingDir.relativize(Paths.get(uri).normalize()).toString().replace('\\', '/');
+    }
+}
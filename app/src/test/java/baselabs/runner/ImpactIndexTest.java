@@ -0,0 +1,115 @@
+package baselabs.runner;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the selection of the scenarios affected by changed files and the method body scanner of {@link ImpactIndex}.
+ * The tests run in the project directory, which the changed file paths are relative to.
+ */
+class ImpactIndexTest {
+    private static final String FEATURE = "src/test/resources/features/ui/login/login.feature";
+    private static final String LOGIN_STEPS = "src/test/java/baselabs/steps/LoginSteps.java";
+    private static final String HOME_STEPS = "src/test/java/baselabs/steps/HomeSteps.java";
+    private static final String LOGIN_PAGE = "src/main/java/baselabs/ui/pages/LoginPage.java";
+    private static final String HOME_PAGE = "src/main/java/baselabs/ui/pages/HomePage.java";
+    private static final String LOGIN_SCENARIO = FEATURE + ":7";
+    private static final String LOGIN_TO_HOME_SCENARIO = FEATURE + ":14";
+    private static final String HOME_SCENARIO = FEATURE + ":21";
+    private static final List<Map<String, Object>> SCENARIOS = List.of(
+            scenario(LOGIN_SCENARIO, FEATURE, LOGIN_STEPS, LOGIN_PAGE),
+            scenario(LOGIN_TO_HOME_SCENARIO, FEATURE, LOGIN_STEPS, LOGIN_PAGE, HOME_PAGE),
+            scenario(HOME_SCENARIO, FEATURE, HOME_STEPS, HOME_PAGE));
+
+    /**
+     * A changed step definition class selects the scenarios whose steps it defines.
+     *
+     * @throws IOException if the source directories cannot be listed
+     */
+    @Test
+    void changedStepFileSelectsTheScenariosItDefines() throws IOException {
+        assertEquals(Set.of(LOGIN_SCENARIO, LOGIN_TO_HOME_SCENARIO), ImpactIndex.select(SCENARIOS, List.of(LOGIN_STEPS)));
+    }
+
+    /**
+     * A changed page object selects the scenarios that use it.
+     *
+     * @throws IOException if the source directories cannot be listed
+     */
+    @Test
+    void changedPageObjectSelectsTheScenariosUsingIt() throws IOException {
+        assertEquals(Set.of(LOGIN_TO_HOME_SCENARIO, HOME_SCENARIO), ImpactIndex.select(SCENARIOS, List.of(HOME_PAGE)));
+    }
+
+    /**
+     * A changed framework file is not covered by the index and selects every scenario.
+     *
+     * @throws IOException if the source directories cannot be listed
+     */
+    @Test
+    void changedFrameworkFileSelectsEveryScenario() throws IOException {
+        Set<String> selected = ImpactIndex.select(SCENARIOS, List.of("src/main/java/baselabs/framework/selenium/DriverManager.java"));
+        assertEquals(Set.of(LOGIN_SCENARIO, LOGIN_TO_HOME_SCENARIO, HOME_SCENARIO), selected);
+    }
+
+    /**
+     * Changed documentation, inside or outside the project, selects no scenario.
+     *
+     * @throws IOException if the source directories cannot be listed
+     */
+    @Test
+    void changedMarkdownFileSelectsNoScenario() throws IOException {
+        assertTrue(ImpactIndex.select(SCENARIOS, List.of("../README.md", "docs/notes.md")).isEmpty());
+    }
+
+    /**
+     * An untracked step definition class, given as an absolute path like the changed files of the build,
+     * is not in the index yet and selects every scenario rather than being ignored.
+     *
+     * @throws IOException if the source directories cannot be listed
+     */
+    @Test
+    void untrackedFileSelectsEveryScenario() throws IOException {
+        String untracked = Paths.get("src/test/java/baselabs/steps/CheckoutSteps.java").toAbsolutePath().toString();
+        assertEquals(Set.of(LOGIN_SCENARIO, LOGIN_TO_HOME_SCENARIO, HOME_SCENARIO), ImpactIndex.select(SCENARIOS, List.of(untracked)));
+    }
+
+    /**
+     * The method body scanner skips braces in string and character literals and in nested blocks.
+     */
+    @Test
+    void methodBodySkipsLiteralsAndNestedBlocks() {
+        String code = "class Steps {\n"
+                + "    void other() { call(\"}\"); }\n"
+                + "    public void login(String user) {\n"
+                + "        if (user != null) { page.type(\"{\" + '}'); }\n"
+                + "    }\n"
+                + "    void after() { }\n"
+                + "}\n";
+        assertEquals("{\n        if (user != null) { page.type(\"{\" + '}'); }\n    }", ImpactIndex.methodBody(code, "login"));
+        assertEquals("", ImpactIndex.methodBody(code, "missing"));
+    }
+
+    /**
+     * Builds an entry of the index.
+     *
+     * @param id      the scenario ID
+     * @param sources the source files behind the scenario
+     * @return the index entry
+     */
+    private static Map<String, Object> scenario(String id, String... sources) {
+        Map<String, Object> scenario = new LinkedHashMap<>();
+        scenario.put("id", id);
+        scenario.put("sources", List.of(sources));
+        return scenario;
+    }
+}
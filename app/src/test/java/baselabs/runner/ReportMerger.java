@@ -0,0 +1,232 @@
+package baselabs.runner;
+
+import baselabs.utils.LoggerManager;
+import net.masterthought.cucumber.Configuration;
+import net.masterthought.cucumber.ReportBuilder;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merges the cucumber.json and rerun.txt outputs of several Cucumber runs into a single report layout.
+ */
+public final class ReportMerger {
+    private static final LoggerManager LOG = LoggerManager.getInstance();
+    private static final String PROJECT_NAME = "coding-challenge-automation";
+    private static final Json JSON = new Json();
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private ReportMerger() {
+    }
+
+    /**
+     * Entry point used by the executeFeatures Gradle task.
+     * Arguments are the target directory, the reports directory and one or more run directories,
+     * each containing a cucumber.json and a rerun.txt.
+     *
+     * @param args the target directory, the reports directory and the run directories
+     * @throws IOException if a report cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            throw new IllegalArgumentException("Usage: ReportMerger <targetDir> <reportsDir> <runDir>...");
+        }
+        Path targetDir = Paths.get(args[0]);
+        Path reportsDir = Paths.get(args[1]);
+        List<Path> runDirs = new ArrayList<>();
+        for (int index = 2; index < args.length; index++) {
+            runDirs.add(Paths.get(args[index]));
+        }
+        merge(runDirs, targetDir, reportsDir);
+    }
+
+    /**
+     * Merges the outputs of the given run directories and regenerates the pretty reports.
+     *
+     * @param runDirs    the directories holding each run's cucumber.json and rerun.txt
+     * @param targetDir  the directory receiving the merged cucumber.json and rerun.txt
+     * @param reportsDir the directory receiving the pretty HTML reports
+     * @throws IOException if a report cannot be read or written
+     */
+    public static void merge(List<Path> runDirs, Path targetDir, Path reportsDir) throws IOException {
+        List<Path> jsonFiles = new ArrayList<>();
+        List<Path> rerunFiles = new ArrayList<>();
+        for (Path runDir : runDirs) {
+            jsonFiles.add(runDir.resolve("cucumber.json"));
+            rerunFiles.add(runDir.resolve("rerun.txt"));
+        }
+        Files.createDirectories(targetDir);
+        Path mergedJson = targetDir.resolve("cucumber.json");
+        mergeJson(jsonFiles, mergedJson);
+        mergeRerun(rerunFiles, targetDir.resolve("rerun.txt"));
+        generatePrettyReports(mergedJson, reportsDir);
+    }
+
+    /**
+     * Merges several cucumber.json files, combining the scenarios of features that appear in more than one file.
+     *
+     * @param jsonFiles the cucumber.json files to merge; missing files are skipped
+     * @param target    the merged cucumber.json to write
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void mergeJson(List<Path> jsonFiles, Path target) throws IOException {
+        Map<String, Map<String, Object>> featuresByUri = new LinkedHashMap<>();
+        for (Path jsonFile : jsonFiles) {
+            for (Map<String, Object> feature : readFeatures(jsonFile)) {
+                String uri = String.valueOf(feature.get("uri"));
+                Map<String, Object> merged = featuresByUri.get(uri);
+                if (merged == null) {
+                    merged = new LinkedHashMap<>(feature);
+                    merged.put("elements", new ArrayList<>(elementsOf(feature)));
+                    featuresByUri.put(uri, merged);
+                } else {
+                    elementsOf(merged).addAll(elementsOf(feature));
+                }
+            }
+        }
+        for (Map<String, Object> feature : featuresByUri.values()) {
+            feature.put("elements", sortByLine(elementsOf(feature)));
+        }
+        Files.writeString(target, JSON.toJson(new ArrayList<>(featuresByUri.values())), StandardCharsets.UTF_8);
+        LOG.info("Merged {} cucumber.json files into: {}", jsonFiles.size(), target);
+    }
+
+    /**
+     * Tags every scenario of a cucumber.json file with a label, such as the browser it ran on or its retry,
+     * so that several runs of the same scenario stay distinguishable once merged: the scenario gets an
+     * {@code @<label>} tag and its name and id get the label as a suffix.
+     *
+     * @param jsonFile the cucumber.json file to rewrite; a missing file is skipped
+     * @param label    the label of the run, for example the browser
+     * @throws IOException if the file cannot be read or written
+     */
+    public static void tagScenarios(Path jsonFile, String label) throws IOException {
+        List<Map<String, Object>> features = readFeatures(jsonFile);
+        if (features.isEmpty()) {
+            return;
+        }
+        List<Map<String, Object>> tagged = new ArrayList<>();
+        for (Map<String, Object> feature : features) {
+            List<Map<String, Object>> elements = new ArrayList<>();
+            for (Map<String, Object> element : elementsOf(feature)) {
+                Map<String, Object> taggedElement = new LinkedHashMap<>(element);
+                taggedElement.put("name", element.getOrDefault("name", "") + " [" + label + "]");
+                taggedElement.put("id", element.getOrDefault("id", "") + ";" + label);
+                if (!"background".equals(element.get("type"))) {
+                    List<Object> tags = new ArrayList<>((List<?>) element.getOrDefault("tags", new ArrayList<>()));
+                    tags.add(Map.of("name", "@" + label));
+                    taggedElement.put("tags", tags);
+                }
+                elements.add(taggedElement);
+            }
+            Map<String, Object> taggedFeature = new LinkedHashMap<>(feature);
+            taggedFeature.put("elements", elements);
+            tagged.add(taggedFeature);
+        }
+        Files.writeString(jsonFile, JSON.toJson(tagged), StandardCharsets.UTF_8);
+        LOG.info("Tagged scenarios of {} with: {}", jsonFile, label);
+    }
+
+    /**
+     * Concatenates several rerun.txt files.
+     *
+     * @param rerunFiles the rerun.txt files to merge; missing files are skipped
+     * @param target     the merged rerun.txt to write
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void mergeRerun(List<Path> rerunFiles, Path target) throws IOException {
+        StringBuilder merged = new StringBuilder();
+        for (Path rerunFile : rerunFiles) {
+            if (Files.exists(rerunFile)) {
+                for (String line : Files.readAllLines(rerunFile, StandardCharsets.UTF_8)) {
+                    if (!line.isBlank()) {
+                        merged.append(line.trim()).append(System.lineSeparator());
+                    }
+                }
+            }
+        }
+        Files.writeString(target, merged.toString(), StandardCharsets.UTF_8);
+        LOG.info("Merged {} rerun.txt files into: {}", rerunFiles.size(), target);
+    }
+
+    /**
+     * Generates the same cucumber-html-reports layout that the PrettyReports plugin writes.
+     *
+     * @param jsonFile   the cucumber.json to render
+     * @param reportsDir the directory receiving the reports
+     */
+    public static void generatePrettyReports(Path jsonFile, Path reportsDir) {
+        Configuration configuration = new Configuration(reportsDir.toFile(), PROJECT_NAME);
+        ReportBuilder reportBuilder = new ReportBuilder(Collections.singletonList(jsonFile.toString()), configuration);
+        reportBuilder.generateReports();
+        LOG.info("Generated pretty reports in: {}", reportsDir);
+    }
+
+    /**
+     * Sorts the scenarios of a feature by line, keeping each background right before the scenario it ran with.
+     *
+     * @param elements the backgrounds and scenarios of the feature, in execution order
+     * @return the sorted elements
+     */
+    private static List<Map<String, Object>> sortByLine(List<Map<String, Object>> elements) {
+        List<List<Map<String, Object>>> runs = new ArrayList<>();
+        List<Map<String, Object>> run = new ArrayList<>();
+        for (Map<String, Object> element : elements) {
+            run.add(element);
+            if (!"background".equals(element.get("type"))) {
+                runs.add(run);
+                run = new ArrayList<>();
+            }
+        }
+        if (!run.isEmpty()) {
+            runs.add(run);
+        }
+        runs.sort(Comparator.comparingLong(scenarioRun -> ((Number) scenarioRun.get(scenarioRun.size() - 1).getOrDefault("line", 0)).longValue()));
+        List<Map<String, Object>> sorted = new ArrayList<>();
+        runs.forEach(sorted::addAll);
+        return sorted;
+    }
+
+    /**
+     * Reads the features of a cucumber.json file.
+     *
+     * @param jsonFile the file to read
+     * @return the features, or an empty list if the file does not exist or is empty
+     * @throws IOException if the file cannot be read
+     */
+    static List<Map<String, Object>> readFeatures(Path jsonFile) throws IOException {
+        if (!Files.exists(jsonFile) || Files.size(jsonFile) == 0) {
+            LOG.warn("Skipping missing cucumber.json: {}", jsonFile);
+            return new ArrayList<>();
+        }
+        try (Reader reader = Files.newBufferedReader(jsonFile, StandardCharsets.UTF_8)) {
+            List<Map<String, Object>> features = JSON.toType(reader, Json.LIST_OF_MAPS_TYPE);
+            return features == null ? new ArrayList<>() : features;
+        }
+    }
+
+    /**
+     * Returns the scenarios of a feature.
+     *
+     * @param feature the feature
+     * @return the scenarios of the feature
+     */
+    @SuppressWarnings("unchecked")
+    static List<Map<String, Object>> elementsOf(Map<String, Object> feature) {
+        Object elements = feature.get("elements");
+        return elements == null ? new ArrayList<>() : (List<Map<String, Object>>) elements;
+    }
+}
@@ -0,0 +1,283 @@
+package baselabs.runner;
+
+import baselabs.utils.LoggerManager;
+import io.cucumber.core.gherkin.Pickle;
+import io.cucumber.core.order.PickleOrder;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Durations of the scenarios in previous runs, kept per browser in a JSON store that survives
+ * {@code gradle clean}, and the longest-first schedule built from them. When scenarios run on several
+ * threads, dispatching the longest ones first keeps a long scenario from starting last and leaving the
+ * other threads idle until it finishes. Scenarios without history are estimated from scenarios of the
+ * same name in the same feature, such as the other rows of an outline, else from the median duration.
+ */
+public final class ScenarioDurations {
+    private static final LoggerManager LOG = LoggerManager.getInstance();
+    private static final Json JSON = new Json();
+    private static final Path DEFAULT_STORE = Paths.get("reports", "scenario-durations.json");
+    private static final String LONGEST_FIRST = "longest-first";
+    private static final String CLASSPATH_SCHEME = "classpath";
+    private static final String TEST_RESOURCES = "src/test/resources/";
+    private static final double SMOOTHING = 0.5;
+    private static final Object STORE_LOCK = new Object();
+    private final Map<String, Map<String, Sample>> samplesByBrowser;
+
+    /**
+     * Duration of a scenario.
+     *
+     * @param name   the scenario name
+     * @param millis the duration in milliseconds
+     */
+    public record Sample(String name, long millis) {
+    }
+
+    /**
+     * Private constructor to hold the samples read from the store.
+     *
+     * @param samplesByBrowser the samples of each browser, by scenario ID
+     */
+    private ScenarioDurations(Map<String, Map<String, Sample>> samplesByBrowser) {
+        this.samplesByBrowser = samplesByBrowser;
+    }
+
+    /**
+     * Returns the store file, set with the {@code scenarioDurations} system property.
+     *
+     * @return the store file, reports/scenario-durations.json by default
+     */
+    public static Path getStoreFile() {
+        String storeFile = System.getProperty("scenarioDurations");
+        return storeFile == null || storeFile.isBlank() ? DEFAULT_STORE : Paths.get(storeFile);
+    }
+
+    /**
+     * Returns whether parallel runs are scheduled longest first, set with the {@code scenarioScheduling}
+     * system property: {@code longest-first} (the default) or {@code feature} for the feature file order.
+     *
+     * @return true if scenarios are scheduled longest first
+     * @throws IllegalArgumentException if the property has another value
+     */
+    public static boolean isLongestFirst() {
+        String scheduling = System.getProperty("scenarioScheduling", LONGEST_FIRST);
+        if (!LONGEST_FIRST.equals(scheduling) && !"feature".equals(scheduling)) {
+            throw new IllegalArgumentException("Unsupported scenarioScheduling: " + scheduling + ", expected longest-first or feature");
+        }
+        return LONGEST_FIRST.equals(scheduling);
+    }
+
+    /**
+     * Reads the store. A missing or unreadable store gives no history, so every scenario keeps its feature order.
+     *
+     * @param storeFile the store file
+     * @return the durations of the previous runs
+     */
+    public static ScenarioDurations load(Path storeFile) {
+        synchronized (STORE_LOCK) {
+            return new ScenarioDurations(read(storeFile));
+        }
+    }
+
+    /**
+     * Merges the durations of a run into the store. Each duration is smoothed with the one already stored
+     * so a single slow run does not reorder the next ones. The store is locked while it is merged, as
+     * forks and browsers of a matrix run finish concurrently.
+     *
+     * @param storeFile the store file
+     * @param browser   the browser the scenarios ran on
+     * @param measured  the durations of the run, by scenario ID
+     * @throws UncheckedIOException if the store cannot be written
+     */
+    public static void record(Path storeFile, String browser, Map<String, Sample> measured) {
+        if (measured.isEmpty()) {
+            return;
+        }
+        synchronized (STORE_LOCK) {
+            try {
+                Path lockFile = storeFile.resolveSibling(storeFile.getFileName() + ".lock");
+                Files.createDirectories(storeFile.toAbsolutePath().getParent());
+                try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                     FileLock ignored = channel.lock()) {
+                    Map<String, Map<String, Sample>> stored = read(storeFile);
+                    Map<String, Sample> samples = stored.computeIfAbsent(browser, key -> new TreeMap<>());
+                    measured.forEach((scenarioId, sample) -> samples.merge(scenarioId, sample,
+                            (previous, current) -> new Sample(current.name(), Math.round(previous.millis() * (1 - SMOOTHING) + current.millis() * SMOOTHING))));
+                    Path tempFile = storeFile.resolveSibling(storeFile.getFileName() + ".tmp");
+                    Files.writeString(tempFile, JSON.toJson(toJson(stored)), StandardCharsets.UTF_8);
+                    Files.move(tempFile, storeFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                }
+                LOG.info("Recorded the durations of {} {} scenarios in: {}", measured.size(), browser, storeFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write scenario durations to " + storeFile, e);
+            }
+        }
+    }
+
+    /**
+     * Returns the order that dispatches the scenarios longest first.
+     *
+     * @param browser the browser the scenarios run on
+     * @param threads the number of threads running the scenarios
+     * @return the pickle order
+     */
+    public PickleOrder longestFirst(String browser, int threads) {
+        return pickles -> {
+            Map<String, Sample> samples = samplesByBrowser.getOrDefault(browser, Map.of());
+            long fallback = median(samples);
+            Map<Pickle, Long> estimates = new IdentityHashMap<>();
+            int withoutHistory = 0;
+            for (Pickle pickle : pickles) {
+                Sample sample = samples.get(scenarioId(pickle.getUri(), pickle.getLocation().getLine()));
+                if (sample == null) {
+                    withoutHistory++;
+                }
+                estimates.put(pickle, sample != null ? sample.millis() : estimateByName(samples, pickle, fallback));
+            }
+            List<Pickle> ordered = new ArrayList<>(pickles);
+            ordered.sort(Comparator.comparing(estimates::get, Comparator.reverseOrder()));
+            LOG.info("Scheduling {} {} scenarios longest first on {} threads ({} without history), estimated makespan: {} ms",
+                    ordered.size(), browser, threads, withoutHistory, makespan(ordered, estimates, threads));
+            return ordered;
+        };
+    }
+
+    /**
+     * Estimates a scenario without history from the scenarios of the same name in the same feature.
+     *
+     * @param samples  the samples of the browser, by scenario ID
+     * @param pickle   the scenario
+     * @param fallback the estimate if no scenario has the same name
+     * @return the mean duration of the scenarios of the same name, or the fallback
+     */
+    private static long estimateByName(Map<String, Sample> samples, Pickle pickle, long fallback) {
+        String featurePrefix = scenarioId(pickle.getUri(), 0).replaceFirst("0$", "");
+        return Math.round(samples.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(featurePrefix) && entry.getValue().name().equals(pickle.getName()))
+                .mapToLong(entry -> entry.getValue().millis())
+                .average()
+                .orElse(fallback));
+    }
+
+    /**
+     * Returns the median duration of the samples.
+     *
+     * @param samples the samples, by scenario ID
+     * @return the median duration, or zero if there are no samples
+     */
+    private static long median(Map<String, Sample> samples) {
+        long[] millis = samples.values().stream().mapToLong(Sample::millis).sorted().toArray();
+        return millis.length == 0 ? 0 : millis[millis.length / 2];
+    }
+
+    /**
+     * Simulates the dispatch of the scenarios in order to the thread that becomes free first.
+     *
+     * @param ordered   the scenarios in dispatch order
+     * @param estimates the estimated duration of each scenario
+     * @param threads   the number of threads
+     * @return the estimated time until the last scenario finishes
+     */
+    private static long makespan(List<Pickle> ordered, Map<Pickle, Long> estimates, int threads) {
+        PriorityQueue<Long> threadLoads = new PriorityQueue<>();
+        for (int thread = 0; thread < Math.max(1, threads); thread++) {
+            threadLoads.add(0L);
+        }
+        long makespan = 0;
+        for (Pickle pickle : ordered) {
+            long load = threadLoads.poll() + estimates.get(pickle);
+            makespan = Math.max(makespan, load);
+            threadLoads.add(load);
+        }
+        return makespan;
+    }
+
+    /**
+     * Returns the scenario ID in the format of rerun.txt: the feature path relative to the working directory and the line.
+     * Features loaded from the classpath, the Cucumber default when no feature path is given, are mapped to their
+     * source under {@code src/test/resources}, so runs with and without explicit feature paths share their history.
+     *
+     * @param uri  the feature URI
+     * @param line the line of the scenario or example row
+     * @return the scenario ID
+     */
+    public static String scenarioId(URI uri, int line) {
+        String relative = uri.toString();
+        if ("file".equals(uri.getScheme())) {
+            relative = Paths.get("").toAbsolutePath().toUri().relativize(uri).toString();
+        } else if (CLASSPATH_SCHEME.equals(uri.getScheme())) {
+            relative = TEST_RESOURCES + uri.getSchemeSpecificPart().replaceFirst("^/+", "");
+        }
+        return relative + ":" + line;
+    }
+
+    /**
+     * Reads the samples of every browser from the store.
+     *
+     * @param storeFile the store file
+     * @return the samples of each browser, by scenario ID, empty if the store is missing or unreadable
+     */
+    private static Map<String, Map<String, Sample>> read(Path storeFile) {
+        Map<String, Map<String, Sample>> samplesByBrowser = new TreeMap<>();
+        if (!Files.isRegularFile(storeFile)) {
+            return samplesByBrowser;
+        }
+        try {
+            Map<String, Object> stored = JSON.toType(Files.readString(storeFile, StandardCharsets.UTF_8), Json.MAP_TYPE);
+            stored.forEach((browser, scenarios) -> {
+                Map<String, Sample> samples = samplesByBrowser.computeIfAbsent(browser, key -> new TreeMap<>());
+                if (scenarios instanceof Map<?, ?> scenarioMap) {
+                    scenarioMap.forEach((scenarioId, sample) -> {
+                        if (sample instanceof Map<?, ?> sampleMap && sampleMap.get("millis") instanceof Number millis) {
+                            samples.put(String.valueOf(scenarioId), new Sample(String.valueOf(sampleMap.get("name")), millis.longValue()));
+                        }
+                    });
+                }
+            });
+        } catch (IOException | JsonException e) {
+            LOG.warn("Ignoring unreadable scenario durations in {}: {}", storeFile, e.getMessage());
+        }
+        return samplesByBrowser;
+    }
+
+    /**
+     * Converts the samples to the JSON layout of the store.
+     *
+     * @param samplesByBrowser the samples of each browser, by scenario ID
+     * @return the store content
+     */
+    private static Map<String, Object> toJson(Map<String, Map<String, Sample>> samplesByBrowser) {
+        Map<String, Object> store = new TreeMap<>();
+        samplesByBrowser.forEach((browser, samples) -> {
+            Map<String, Object> scenarios = new TreeMap<>();
+            samples.forEach((scenarioId, sample) -> {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("name", sample.name());
+                entry.put("millis", sample.millis());
+                scenarios.put(scenarioId, entry);
+            });
+            store.put(browser, scenarios);
+        });
+        return store;
+    }
+}
@@ -0,0 +1,179 @@
+package baselabs.runner;
+
+import baselabs.plugins.InfrastructureFailurePlugin;
+import baselabs.utils.LoggerManager;
+import io.cucumber.core.gherkin.Feature;
+import io.cucumber.core.options.RuntimeOptions;
+import io.cucumber.core.runtime.Runtime;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Runs the features and retries, in the same JVM, only the scenarios that failed on the infrastructure.
+ * Failures are classified by {@link FailureClassifier}: a dead or missing browser session is retried right
+ * after the first pass on a fresh session, while assertion failures are reported as they are. Both attempts
+ * are kept in the run's cucumber.json, the retried scenarios tagged {@code @retry-<n>}, and rerun.txt lists
+ * the scenarios that still fail. The number of retries is set with the {@code infrastructure.retries}
+ * system property (one by default, zero disables retries).
+ */
+public final class ScenarioRetryRunner {
+    private static final LoggerManager LOG = LoggerManager.getInstance();
+    private static final int DEFAULT_RETRIES = 1;
+    private static final String STREAMING_REPORT_MODE = "streaming";
+
+    /**
+     * Outcome of one pass over the features.
+     *
+     * @param exitStatus the exit status of the Cucumber runtime
+     * @param failures   the scenarios that did not pass, classified
+     */
+    private record Attempt(byte exitStatus, InfrastructureFailurePlugin failures) {
+    }
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private ScenarioRetryRunner() {
+    }
+
+    /**
+     * Entry point used by the executeFeatures Gradle task.
+     * Arguments are the run directory, holding the cucumber.json and rerun.txt written by the plugins of the
+     * Cucumber options, followed by the Cucumber options themselves.
+     *
+     * @param args the run directory and the Cucumber options
+     * @throws IOException if a report cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            throw new IllegalArgumentException("Usage: ScenarioRetryRunner <runDir> [cucumber options]...");
+        }
+        byte exitStatus = run(Paths.get(args[0]), Arrays.asList(args).subList(1, args.length), null);
+        System.exit(exitStatus);
+    }
+
+    /**
+     * Runs the features, then retries the scenarios that failed on the infrastructure.
+     *
+     * @param runDir       the directory holding the cucumber.json and rerun.txt written by the Cucumber options
+     * @param cucumberArgs the Cucumber options of the first pass
+     * @param features     the already parsed features, or null to load them from the feature paths of the options
+     * @return zero if every scenario passed in its last attempt, the exit status of the run otherwise
+     * @throws IOException if a report cannot be read or written
+     */
+    public static byte run(Path runDir, List<String> cucumberArgs, List<Feature> features) throws IOException {
+        int retries = Integer.getInteger("infrastructure.retries", DEFAULT_RETRIES);
+        RuntimeOptions runtimeOptions = FeatureRunner.parseOptions(cucumberArgs);
+        Attempt attempt = runAttempt(runtimeOptions, features);
+        List<String> retryIds = attempt.failures().getInfrastructureFailures();
+        if (retries == 0 || retryIds.isEmpty()) {
+            return attempt.exitStatus();
+        }
+        Set<String> stillFailing = new LinkedHashSet<>(attempt.failures().getFailedScenarios());
+        List<Path> jsonFiles = new ArrayList<>(List.of(runDir.resolve("cucumber.json")));
+        for (int retry = 1; retry <= retries && !retryIds.isEmpty(); retry++) {
+            LOG.warn("Retrying {} scenarios that failed on the infrastructure (retry {} of {}): {}", retryIds.size(), retry, retries, retryIds);
+            Path retryDir = runDir.resolve("retry-" + retry);
+            RuntimeOptions retryOptions = FeatureRunner.parseOptions(retryArgs(runtimeOptions, runDir, retryDir, retryIds));
+            Attempt retryAttempt = runAttempt(retryOptions, retriedFeatures(features, retryOptions));
+            ReportMerger.tagScenarios(retryDir.resolve("cucumber.json"), "retry-" + retry);
+            jsonFiles.add(retryDir.resolve("cucumber.json"));
+            stillFailing.removeAll(retryIds);
+            stillFailing.addAll(retryAttempt.failures().getFailedScenarios());
+            retryIds = retryAttempt.failures().getInfrastructureFailures();
+        }
+        if (!isStreamingReportMode()) {
+            ReportMerger.mergeJson(jsonFiles, runDir.resolve("cucumber.json"));
+        }
+        StringBuilder rerun = new StringBuilder();
+        stillFailing.forEach(scenarioId -> rerun.append(scenarioId).append(System.lineSeparator()));
+        Files.writeString(runDir.resolve("rerun.txt"), rerun.toString(), StandardCharsets.UTF_8);
+        LOG.info("{} scenarios still failing after retries: {}", stillFailing.size(), stillFailing);
+        return (byte) (stillFailing.isEmpty() ? 0 : 1);
+    }
+
+    /**
+     * Returns whether the {@code reportMode} system property selects the streaming report, in which case
+     * the runs write an NDJSON event stream instead of cucumber.json.
+     *
+     * @return true in streaming report mode, false otherwise
+     */
+    static boolean isStreamingReportMode() {
+        return STREAMING_REPORT_MODE.equals(System.getProperty("reportMode"));
+    }
+
+    /**
+     * Runs one pass over the features.
+     *
+     * @param runtimeOptions the runtime options of the pass
+     * @param features       the already parsed features, or null to load them from the feature paths of the options
+     * @return the outcome of the pass
+     */
+    private static Attempt runAttempt(RuntimeOptions runtimeOptions, List<Feature> features) {
+        InfrastructureFailurePlugin failures = new InfrastructureFailurePlugin();
+        Runtime.Builder builder = Runtime.builder()
+                .withRuntimeOptions(runtimeOptions)
+                .withClassLoader(ScenarioRetryRunner.class::getClassLoader)
+                .withAdditionalPlugins(failures);
+        if (features != null) {
+            builder.withFeatureSupplier(() -> features);
+        }
+        Runtime runtime = builder.build();
+        runtime.run();
+        return new Attempt(runtime.exitStatus(), failures);
+    }
+
+    /**
+     * Keeps only the already parsed features that hold a retried scenario. The line filters of the retry only apply
+     * to the features they name, so passing every feature would run the others again in full.
+     *
+     * @param features     the already parsed features, or null when they are loaded from the feature paths
+     * @param retryOptions the runtime options of the retry, whose feature paths are the retried features
+     * @return the retried features, or null when they are loaded from the feature paths
+     */
+    private static List<Feature> retriedFeatures(List<Feature> features, RuntimeOptions retryOptions) {
+        if (features == null) {
+            return null;
+        }
+        Set<URI> retriedUris = new HashSet<>(retryOptions.getFeaturePaths());
+        return features.stream().filter(feature -> retriedUris.contains(feature.getUri())).toList();
+    }
+
+    /**
+     * Builds the Cucumber options of a retry: the glue and threads of the first pass, reports in the retry
+     * directory, and the retried scenarios as feature paths with lines.
+     *
+     * @param firstOptions the runtime options of the first pass
+     * @param runDir       the directory of the run, receiving the command metrics of every attempt
+     * @param retryDir     the directory receiving the reports and rerun.txt of the retry
+     * @param scenarioIds  the scenarios to retry
+     * @return the Cucumber options of the retry
+     */
+    private static List<String> retryArgs(RuntimeOptions firstOptions, Path runDir, Path retryDir, List<String> scenarioIds) {
+        List<String> retryArgs = new ArrayList<>(List.of(
+                "--plugin", isStreamingReportMode()
+                        ? "baselabs.plugins.StreamingReportPlugin:" + retryDir.resolve("stream")
+                        : "json:" + retryDir.resolve("cucumber.json"),
+                "--plugin", "rerun:" + retryDir.resolve("rerun.txt"),
+                "--plugin", "baselabs.plugins.ScenarioDurationPlugin",
+                "--plugin", "baselabs.plugins.CommandMetricsPlugin:" + runDir.resolve("command-metrics.json"),
+                "--threads", String.valueOf(firstOptions.getThreads())));
+        for (URI glue : firstOptions.getGlue()) {
+            retryArgs.add("--glue");
+            retryArgs.add(glue.toString());
+        }
+        retryArgs.addAll(scenarioIds);
+        return retryArgs;
+    }
+}
@@ -2,7 +2,9 @@ package baselabs.steps;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import baselabs.framework.Credentials;
 import baselabs.framework.CredentialsManager;
+import baselabs.framework.selenium.SessionCache;
 import baselabs.ui.PageTransporter;
 import baselabs.ui.pages.HomePage;
 import baselabs.ui.pages.LoginPage;
@@ -18,6 +20,7 @@ public class LoginSteps {
     private final PageTransporter pageTransporter;
     private LoginPage loginPage;
     private HomePage homePage;
+    private String loggedInRole;
 
     /**
      * Constructor to initialize the PageTransporter instance.
@@ -35,15 +38,26 @@ public class LoginSteps {
     }
 
     /**
-     * Logs in to the page using valid credentials for the specified user role.
+     * Opens the Home page as a logged-in user, reusing a cached session when the scenario allows it.
+     *
+     * @param userRole the role of the user to log in as
+     */
+    @Given("I am logged in as {string}")
+    public void loggedInAs(String userRole) {
+        homePage = pageTransporter.navigateToHomePageAs(userRole);
+        loggedInRole = userRole;
+    }
+
+    /**
+     * Logs in to the page using an account of the specified user role leased to this scenario.
      *
      * @param userRole the role of the user whose credentials will be used for login
      */
     @When("I login to the page using valid credentials for {string}")
     public void loginWithCredentials(String userRole) {
-        String username = CredentialsManager.getInstance().getUsername(userRole);
-        String password = CredentialsManager.getInstance().getPassword(userRole);
-        homePage = loginPage.loginWithValidCredentials(username, password);
+        Credentials credentials = CredentialsManager.getInstance().leaseCredentials(userRole);
+        homePage = loginPage.loginWithValidCredentials(credentials.username(), credentials.password());
+        loggedInRole = userRole;
     }
 
     /**
@@ -56,11 +70,15 @@ public class LoginSteps {
     }
 
     /**
-     * Logs out from the page.
+     * Logs out from the page. Logging out ends the session on the server, so the session cached for the
+     * role is dropped as well.
      */
     @When("I logout from the page")
     public void logoutFromPage() {
         homePage.clickLoginLink();
+        if (loggedInRole != null) {
+            SessionCache.getInstance().invalidate(CredentialsManager.getInstance().getEnvId(), loggedInRole);
+        }
     }
 
     /**
@@ -1,7 +1,7 @@
 @Login @UI
 Feature: Login to the application
 
-  @BL-T001 @SmokeTest
+  @BL-T001 @SmokeTest @HttpDriver
   Scenario Outline: A user with valid credentials should be able to log in without any issues
     Given I navigate to the Login page
     When I login to the page using valid credentials for "<User Role>"
@@ -11,7 +11,7 @@ Feature: Login to the application
       | User Role     |
       | administrator |
 
-  @BL-T002 @SmokeTest
+  @BL-T002 @SmokeTest @HttpDriver
   Scenario: A user should able to logout successfully
     Given I navigate to the Login page
     When I login to the page using valid credentials for "administrator"
@@ -19,7 +19,7 @@ Feature: Login to the application
     When I logout from the page
     Then I should logout successfully
 
-  @BL-T003
+  @BL-T003 @HttpDriver
   Scenario Outline: A user should not be able to log in with invalid credentials
     Given I navigate to the Login page
     When I attempt to log in using username "<username>" and password "<password>"
@@ -30,7 +30,7 @@ Feature: Login to the application
       | invalidUser | wrongPassword |
       | admin       | invalidPass   |
 
-  @BL-T004
+  @BL-T004 @HttpDriver
   Scenario Outline: A user should not be able to log in with empty credentials
     Given I navigate to the Login page
     When I attempt to log in using username "<username>" and password "<password>"
@@ -42,10 +42,15 @@ Feature: Login to the application
       |          | admin    |
       |          |          |
   
-  @BL-T005
+  @BL-T005 @HttpDriver
   Scenario: The session should persist after refreshing the page following a successful login
     Given I navigate to the Login page
     When I login to the page using valid credentials for "administrator"
     Then I should login to home page successfully
     When I refresh the page
     Then I should still be logged in
+
+  @BL-T006
+  Scenario: A logged-in user should reach the home page from a cached session
+    Given I am logged in as "administrator"
+    Then I should login to home page successfully
@@ -0,0 +1,122 @@
+package baselabs.benchmark;
+
+import baselabs.framework.Credentials;
+import baselabs.framework.CredentialsManager;
+import baselabs.framework.selenium.DriverPool;
+import baselabs.framework.selenium.SessionCache;
+import baselabs.ui.PageTransporter;
+import baselabs.ui.pages.HomePage;
+import baselabs.ui.pages.LoginPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the framework against the local stub site.
+ * Each trial starts the stub site, navigates relative to its base URL so that {@code -PstubPort} is honoured,
+ * and leases a browser on the benchmark thread, then leaves the browser
+ * on the Login page showing the error banner so the BasePage operations have something to read.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FrameworkBenchmark {
+    private static final String USER_ROLE = "administrator";
+    private StubSiteServer stubSiteServer;
+    private PageTransporter pageTransporter;
+    private LoginPage loginPage;
+
+    /**
+     * Starts the stub site and opens the Login page with a failed login attempt.
+     *
+     * @throws IOException if the stub site cannot be started
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        stubSiteServer = StubSiteServer.fromSystemProperties();
+        stubSiteServer.start();
+        SessionCache.getInstance().setEnabled(false);
+        pageTransporter = new PageTransporter(stubSiteServer.getBaseURL()) {
+        };
+        loginPage = pageTransporter.navigateToLoginPage();
+        loginPage.loginWithInvalidCredentials("benchmark", "benchmark");
+    }
+
+    /**
+     * Quits the browsers and stops the stub site.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DriverPool.getInstance().shutdown();
+        stubSiteServer.stop();
+    }
+
+    /**
+     * Measures BasePage.getText on the error banner.
+     *
+     * @return the error message
+     */
+    @Benchmark
+    public String getText() {
+        return loginPage.getErrorMessage();
+    }
+
+    /**
+     * Measures BasePage.isElementDisplayed on the error banner.
+     *
+     * @return true if the error message is displayed
+     */
+    @Benchmark
+    public boolean isElementDisplayed() {
+        return loginPage.isErrorMessageDisplayed();
+    }
+
+    /**
+     * Measures the construction of a page object on an already loaded page, including its load conditions.
+     *
+     * @return the new LoginPage
+     */
+    @Benchmark
+    public LoginPage constructPageObject() {
+        return new LoginPage();
+    }
+
+    /**
+     * Measures the navigation to the Login page and the construction of its page object.
+     *
+     * @return the new LoginPage
+     */
+    @Benchmark
+    public LoginPage navigateToLoginPage() {
+        return pageTransporter.navigateToLoginPage();
+    }
+
+    /**
+     * Measures the full LoginSteps flow: open the Login page, log in with the administrator credentials,
+     * verify the login, log out and verify the logout.
+     *
+     * @return true if both the login and the logout succeeded
+     */
+    @Benchmark
+    public boolean loginFlow() {
+        CredentialsManager credentialsManager = CredentialsManager.getInstance();
+        try {
+            Credentials credentials = credentialsManager.leaseCredentials(USER_ROLE);
+            HomePage homePage = pageTransporter.navigateToLoginPage().loginWithValidCredentials(credentials.username(), credentials.password());
+            boolean isLoggedIn = homePage.verifyIsLoggedSuccesfylly();
+            homePage.clickLoginLink();
+            return isLoggedIn && homePage.verifyIsLoggedOut();
+        } finally {
+            credentialsManager.releaseCredentials();
+        }
+    }
+}
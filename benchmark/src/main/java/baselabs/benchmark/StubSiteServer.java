@@ -0,0 +1,324 @@
+package baselabs.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import baselabs.utils.LoggerManager;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded HTTP server that reproduces the parts of quotes.toscrape.com used by the page objects:
+ * the home page with its login/logout link and quotes column, and the login form with its error banner.
+ * Every response can be delayed to simulate network and server latency.
+ */
+public class StubSiteServer {
+    public static final int DEFAULT_PORT = 8089;
+    private static final LoggerManager LOG = LoggerManager.getInstance();
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_FOUND = 302;
+    private static final int HTTP_NOT_FOUND = 404;
+    private static final String SESSION_COOKIE = "session";
+    private final int port;
+    private final long delayMillis;
+    private final String username;
+    private final String password;
+    private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Constructor to configure the server.
+     *
+     * @param port        the port to listen on
+     * @param delayMillis the delay added to every response, in milliseconds
+     * @param username    the username accepted by the login form
+     * @param password    the password accepted by the login form
+     */
+    public StubSiteServer(int port, long delayMillis, String username, String password) {
+        this.port = port;
+        this.delayMillis = delayMillis;
+        this.username = username;
+        this.password = password;
+    }
+
+    /**
+     * Creates a server configured from the {@code stub.port}, {@code stub.delay.ms}, {@code stub.username}
+     * and {@code stub.password} system properties.
+     *
+     * @return the configured server
+     */
+    public static StubSiteServer fromSystemProperties() {
+        return new StubSiteServer(
+                Integer.getInteger("stub.port", DEFAULT_PORT),
+                Long.getLong("stub.delay.ms", 0L),
+                System.getProperty("stub.username", "admin"),
+                System.getProperty("stub.password", "admin"));
+    }
+
+    /**
+     * Starts the server in the foreground until the process is stopped.
+     *
+     * @param args unused
+     * @throws IOException if the server cannot be started
+     */
+    public static void main(String[] args) throws IOException {
+        StubSiteServer stubSiteServer = fromSystemProperties();
+        stubSiteServer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(stubSiteServer::stop));
+    }
+
+    /**
+     * Starts the server.
+     *
+     * @throws IOException if the port cannot be bound
+     */
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/login", this::handleLogin);
+        server.createContext("/logout", this::handleLogout);
+        server.createContext("/", this::handleHome);
+        server.start();
+        LOG.info("Stub site listening on {} with {} ms delay", getBaseURL(), delayMillis);
+    }
+
+    /**
+     * Stops the server.
+     */
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    /**
+     * Returns the base URL of the server, ending with a slash.
+     *
+     * @return the base URL
+     */
+    public String getBaseURL() {
+        return "http://localhost:" + port + "/";
+    }
+
+    /**
+     * Serves the home page.
+     *
+     * @param exchange the HTTP exchange
+     * @throws IOException if the response cannot be written
+     */
+    private void handleHome(HttpExchange exchange) throws IOException {
+        if (!"/".equals(exchange.getRequestURI().getPath())) {
+            respond(exchange, HTTP_NOT_FOUND, page("Not Found", "<h1>Not Found</h1>"));
+            return;
+        }
+        String authLink = isLoggedIn(exchange)
+                ? "<a href=\"/logout\">Logout</a>"
+                : "<a href=\"/login\">Login</a>";
+        respond(exchange, HTTP_OK, page("Quotes to Scrape",
+                "<div class=\"row header-box\">"
+                        + "<div class=\"col-md-8\"><h1><a href=\"/\">Quotes to Scrape</a></h1></div>"
+                        + "<div class=\"col-md-4\"><p>" + authLink + "</p></div>"
+                        + "</div>"
+                        + "<div class=\"row\">"
+                        + "<div class=\"col-md-8\">"
+                        + "<div class=\"quote\"><span class=\"text\">&ldquo;The world as we have created it is a process of our thinking.&rdquo;</span>"
+                        + "<span>by <small class=\"author\">Albert Einstein</small></span></div>"
+                        + "<div class=\"quote\"><span class=\"text\">&ldquo;It is our choices that show what we truly are.&rdquo;</span>"
+                        + "<span>by <small class=\"author\">J.K. Rowling</small></span></div>"
+                        + "</div>"
+                        + "<div class=\"col-md-4 tags-box\"><h2>Top Ten tags</h2><span class=\"tag-item\">love</span></div>"
+                        + "</div>"));
+    }
+
+    /**
+     * Serves the login form and handles its submission.
+     *
+     * @param exchange the HTTP exchange
+     * @throws IOException if the response cannot be written
+     */
+    private void handleLogin(HttpExchange exchange) throws IOException {
+        if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+            respond(exchange, HTTP_OK, loginPage(""));
+            return;
+        }
+        Map<String, String> form = readForm(exchange);
+        String submittedUsername = form.getOrDefault("username", "");
+        String submittedPassword = form.getOrDefault("password", "");
+        if (submittedUsername.isEmpty() || submittedPassword.isEmpty()
+                || !username.equals(submittedUsername) || !password.equals(submittedPassword)) {
+            respond(exchange, HTTP_OK, loginPage("<p class=\"error\">Error while logging in: please, provide valid credentials.</p>"));
+            return;
+        }
+        String session = UUID.randomUUID().toString();
+        sessions.add(session);
+        exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + session + "; Path=/; HttpOnly");
+        redirect(exchange, "/");
+    }
+
+    /**
+     * Ends the session of the caller.
+     *
+     * @param exchange the HTTP exchange
+     * @throws IOException if the response cannot be written
+     */
+    private void handleLogout(HttpExchange exchange) throws IOException {
+        String session = readSession(exchange);
+        if (session != null) {
+            sessions.remove(session);
+        }
+        exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=; Path=/; Max-Age=0");
+        redirect(exchange, "/");
+    }
+
+    /**
+     * Renders the login page.
+     *
+     * @param error the error banner, or an empty string
+     * @return the HTML of the login page
+     */
+    private String loginPage(String error) {
+        return page("Quotes to Scrape",
+                "<div class=\"row header-box\">"
+                        + "<div class=\"col-md-8\"><h1><a href=\"/\">Quotes to Scrape</a></h1></div>"
+                        + "<div class=\"col-md-4\"><p><a href=\"/login\">Login</a></p></div>"
+                        + "</div>"
+                        + "<form action=\"/login\" method=\"post\">"
+                        + "<input type=\"hidden\" name=\"csrf_token\" value=\"" + UUID.randomUUID() + "\">"
+                        + error
+                        + "<div class=\"form-group\"><label for=\"username\">Username</label>"
+                        + "<input type=\"text\" class=\"form-control\" id=\"username\" name=\"username\"></div>"
+                        + "<div class=\"form-group\"><label for=\"password\">Password</label>"
+                        + "<input type=\"password\" class=\"form-control\" id=\"password\" name=\"password\"></div>"
+                        + "<input type=\"submit\" value=\"Login\" class=\"btn btn-primary\">"
+                        + "</form>");
+    }
+
+    /**
+     * Wraps a body in the page layout.
+     *
+     * @param title the page title
+     * @param body  the body HTML
+     * @return the full HTML document
+     */
+    private static String page(String title, String body) {
+        return "<!DOCTYPE html><html lang=\"en\"><head><meta charset=\"UTF-8\"><title>" + title + "</title></head>"
+                + "<body><div class=\"container\">" + body + "</div></body></html>";
+    }
+
+    /**
+     * Returns whether the request carries a valid session cookie.
+     *
+     * @param exchange the HTTP exchange
+     * @return true if the caller is logged in, false otherwise
+     */
+    private boolean isLoggedIn(HttpExchange exchange) {
+        String session = readSession(exchange);
+        return session != null && sessions.contains(session);
+    }
+
+    /**
+     * Reads the session cookie of the request.
+     *
+     * @param exchange the HTTP exchange
+     * @return the session id, or null if there is none
+     */
+    private static String readSession(HttpExchange exchange) {
+        List<String> cookieHeaders = exchange.getRequestHeaders().get("Cookie");
+        if (cookieHeaders == null) {
+            return null;
+        }
+        for (String header : cookieHeaders) {
+            for (String cookie : header.split(";")) {
+                String[] pair = cookie.trim().split("=", 2);
+                if (pair.length == 2 && SESSION_COOKIE.equals(pair[0]) && !pair[1].isEmpty()) {
+                    return pair[1];
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads an URL encoded form body.
+     *
+     * @param exchange the HTTP exchange
+     * @return the form fields
+     * @throws IOException if the body cannot be read
+     */
+    private static Map<String, String> readForm(HttpExchange exchange) throws IOException {
+        Map<String, String> form = new HashMap<>();
+        try (InputStream body = exchange.getRequestBody()) {
+            String encoded = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+            for (String field : encoded.split("&")) {
+                String[] pair = field.split("=", 2);
+                if (!pair[0].isEmpty()) {
+                    form.put(URLDecoder.decode(pair[0], StandardCharsets.UTF_8),
+                            pair.length == 2 ? URLDecoder.decode(pair[1], StandardCharsets.UTF_8) : "");
+                }
+            }
+        }
+        return form;
+    }
+
+    /**
+     * Sends a redirect to the given path.
+     *
+     * @param exchange the HTTP exchange
+     * @param location the path to redirect to
+     * @throws IOException if the response cannot be written
+     */
+    private void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().add("Location", location);
+        delay();
+        exchange.sendResponseHeaders(HTTP_FOUND, -1);
+        exchange.close();
+    }
+
+    /**
+     * Sends an HTML response after the configured delay.
+     *
+     * @param exchange the HTTP exchange
+     * @param status   the HTTP status
+     * @param html     the response body
+     * @throws IOException if the response cannot be written
+     */
+    private void respond(HttpExchange exchange, int status, String html) throws IOException {
+        byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+        delay();
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    /**
+     * Waits for the configured response delay.
+     */
+    private void delay() {
+        if (delayMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}